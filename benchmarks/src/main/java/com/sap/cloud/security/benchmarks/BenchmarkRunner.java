@@ -0,0 +1,27 @@
+package com.sap.cloud.security.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the gc profiler, which reports the allocations per
+ * operation. Accepts the JMH command line options, e.g. a regular expression
+ * to select the benchmarks: {@code java -jar target/benchmarks.jar Signature}
+ */
+public class BenchmarkRunner {
+
+	private BenchmarkRunner() {
+		// use main method
+	}
+
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		new Runner(new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
@@ -0,0 +1,55 @@
+package com.sap.cloud.security.benchmarks;
+
+import com.sap.cloud.security.token.Token;
+import com.sap.cloud.security.token.XsuaaToken;
+import com.sap.cloud.security.token.validation.CombiningValidator;
+import com.sap.cloud.security.token.validation.ValidationResult;
+import com.sap.cloud.security.token.validation.validators.JwtValidatorBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of a token with all default validators that are built by the
+ * {@link JwtValidatorBuilder}, with the json web keys served from the cache.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CombiningValidatorBenchmark {
+
+	private CombiningValidator<Token> validators;
+	private Token token;
+
+	@Setup
+	public void setUp(TokenFixture fixture) {
+		validators = JwtValidatorBuilder.getInstance(fixture.getConfiguration()).build();
+		token = new XsuaaToken(fixture.getEncodedToken());
+		ValidationResult result = validators.validate(token); // fills the json web key cache
+		if (result.isErroneous()) {
+			throw new IllegalStateException(result.getErrorDescription());
+		}
+	}
+
+	@Benchmark
+	public ValidationResult validate() {
+		return validators.validate(token);
+	}
+
+	@Benchmark
+	public ValidationResult decodeAndValidate(TokenFixture fixture) {
+		return validators.validate(new XsuaaToken(fixture.getEncodedToken()));
+	}
+}
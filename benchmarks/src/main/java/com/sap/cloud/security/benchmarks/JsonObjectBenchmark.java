@@ -0,0 +1,74 @@
+package com.sap.cloud.security.benchmarks;
+
+import com.sap.cloud.security.json.DefaultJsonObject;
+import com.sap.cloud.security.json.JacksonJsonObjectProvider;
+import com.sap.cloud.security.json.JsonObject;
+import com.sap.cloud.security.json.JsonObjectProvider;
+import com.sap.cloud.security.json.OrgJsonObjectProvider;
+import com.sap.cloud.security.token.TokenClaims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the token payload and claim reads with the json backends behind
+ * {@link DefaultJsonObject}: {@code org.json} (default) and the streaming
+ * {@code jackson} backend.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonObjectBenchmark {
+	private static final String USER_ATTRIBUTES = "xs.user.attributes";
+
+	@Param({ "org.json", "jackson" })
+	public String provider;
+
+	private JsonObjectProvider jsonObjectProvider;
+	private JsonObject jsonObject;
+
+	@Setup
+	public void setUp(TokenFixture fixture) throws ClassNotFoundException {
+		jsonObjectProvider = "jackson".equals(provider) ? new JacksonJsonObjectProvider()
+				: new OrgJsonObjectProvider();
+		jsonObject = jsonObjectProvider.create(fixture.getPayload());
+	}
+
+	@Benchmark
+	public JsonObject parse(TokenFixture fixture) {
+		return jsonObjectProvider.create(fixture.getPayload());
+	}
+
+	@Benchmark
+	public void readClaims(Blackhole blackhole) {
+		readClaims(jsonObject, blackhole);
+	}
+
+	@Benchmark
+	public void parseAndReadClaims(TokenFixture fixture, Blackhole blackhole) {
+		readClaims(jsonObjectProvider.create(fixture.getPayload()), blackhole);
+	}
+
+	private static void readClaims(JsonObject claims, Blackhole blackhole) {
+		blackhole.consume(claims.getAsString(TokenClaims.XSUAA.CLIENT_ID));
+		blackhole.consume(claims.getAsString(TokenClaims.USER_NAME));
+		blackhole.consume(claims.getAsList(TokenClaims.XSUAA.SCOPES, String.class));
+		blackhole.consume(claims.getAsList(TokenClaims.AUDIENCE, String.class));
+		blackhole.consume(claims.getAsInstant(TokenClaims.EXPIRATION));
+		blackhole.consume(claims.getJsonObject(USER_ATTRIBUTES).getAsList("cost-center", String.class));
+	}
+}
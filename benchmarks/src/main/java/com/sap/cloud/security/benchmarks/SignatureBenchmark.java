@@ -0,0 +1,94 @@
+package com.sap.cloud.security.benchmarks;
+
+import com.sap.cloud.security.token.Token;
+import com.sap.cloud.security.token.XsuaaToken;
+import com.sap.cloud.security.token.validation.CombiningValidator;
+import com.sap.cloud.security.token.validation.ValidationResult;
+import com.sap.cloud.security.token.validation.Validator;
+import com.sap.cloud.security.token.validation.validators.JwtSignatureValidator;
+import com.sap.cloud.security.token.validation.validators.JwtValidatorBuilder;
+import com.sap.cloud.security.xsuaa.jwt.Base64JwtDecoder;
+import com.sap.cloud.security.xsuaa.jwt.DecodedJwt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verification of the token signature by the {@link JwtSignatureValidator}
+ * (json web keys served from the cache) compared to the plain JCA calls: a new
+ * {@link Signature} per token, as the validator did before, and one
+ * {@link Signature} per thread that is initialized once, as the validator does
+ * now.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SignatureBenchmark {
+	private static final String RS256 = "SHA256withRSA";
+
+	private Validator<Token> signatureValidator;
+	private Token token;
+	private PublicKey publicKey;
+	private byte[] headerAndPayload;
+	private byte[] signatureBytes;
+	private Signature reusedSignature;
+
+	@Setup
+	public void setUp(TokenFixture fixture) throws GeneralSecurityException {
+		CombiningValidator<Token> validators = JwtValidatorBuilder.getInstance(fixture.getConfiguration()).build();
+		signatureValidator = validators.getValidators().stream()
+				.filter(JwtSignatureValidator.class::isInstance)
+				.findFirst()
+				.orElseThrow(() -> new IllegalStateException("JwtSignatureValidator is not configured."));
+		token = new XsuaaToken(fixture.getEncodedToken());
+		ValidationResult result = signatureValidator.validate(token); // fills the json web key cache
+		if (result.isErroneous()) {
+			throw new IllegalStateException(result.getErrorDescription());
+		}
+
+		DecodedJwt decodedJwt = Base64JwtDecoder.getInstance().decode(fixture.getEncodedToken());
+		String encodedToken = decodedJwt.getEncodedToken();
+		headerAndPayload = encodedToken.substring(0, encodedToken.lastIndexOf('.'))
+				.getBytes(StandardCharsets.US_ASCII);
+		signatureBytes = Base64.getUrlDecoder().decode(decodedJwt.getSignature());
+		publicKey = fixture.getKeys().getPublic();
+		reusedSignature = Signature.getInstance(RS256);
+		reusedSignature.initVerify(publicKey);
+	}
+
+	@Benchmark
+	public ValidationResult jwtSignatureValidator() {
+		return signatureValidator.validate(token);
+	}
+
+	@Benchmark
+	public boolean signaturePerToken() throws GeneralSecurityException {
+		Signature signature = Signature.getInstance(RS256);
+		signature.initVerify(publicKey);
+		signature.update(headerAndPayload);
+		return signature.verify(signatureBytes);
+	}
+
+	@Benchmark
+	public boolean reusedSignature() throws GeneralSecurityException {
+		reusedSignature.update(headerAndPayload);
+		return reusedSignature.verify(signatureBytes); // verify resets the signature for the next update
+	}
+}
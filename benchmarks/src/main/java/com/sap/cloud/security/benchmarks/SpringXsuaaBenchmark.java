@@ -0,0 +1,89 @@
+package com.sap.cloud.security.benchmarks;
+
+import com.sap.cloud.security.xsuaa.XsuaaServiceConfiguration;
+import com.sap.cloud.security.xsuaa.token.TokenAuthenticationConverter;
+import com.sap.cloud.security.xsuaa.token.authentication.XsuaaJwtDecoderBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding and validation of a token by the {@code XsuaaJwtDecoder} of the
+ * spring-xsuaa library and its conversion to an authentication token with
+ * authorities by the {@link TokenAuthenticationConverter}.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpringXsuaaBenchmark {
+
+	private JwtDecoder jwtDecoder;
+	private TokenAuthenticationConverter authenticationConverter;
+	private Jwt jwt;
+
+	@Setup
+	public void setUp(TokenFixture fixture) {
+		XsuaaServiceConfiguration configuration = new BenchmarkXsuaaServiceConfiguration();
+		jwtDecoder = new XsuaaJwtDecoderBuilder(configuration).build();
+		authenticationConverter = new TokenAuthenticationConverter(configuration);
+		jwt = jwtDecoder.decode(fixture.getEncodedToken()); // fills the json web key cache
+	}
+
+	@Benchmark
+	public Jwt xsuaaJwtDecoder(TokenFixture fixture) {
+		return jwtDecoder.decode(fixture.getEncodedToken());
+	}
+
+	@Benchmark
+	public AbstractAuthenticationToken tokenAuthenticationConverter() {
+		return authenticationConverter.convert(jwt);
+	}
+
+	private static class BenchmarkXsuaaServiceConfiguration implements XsuaaServiceConfiguration {
+
+		@Override
+		public String getClientId() {
+			return TokenFixture.CLIENT_ID;
+		}
+
+		@Override
+		public String getClientSecret() {
+			return "clientSecret";
+		}
+
+		@Override
+		public String getUaaUrl() {
+			return "http://" + TokenFixture.UAA_DOMAIN;
+		}
+
+		@Override
+		public String getAppId() {
+			return TokenFixture.APP_ID;
+		}
+
+		@Override
+		public String getUaaDomain() {
+			return TokenFixture.UAA_DOMAIN;
+		}
+
+		@Override
+		public String getVerificationKey() {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.sap.cloud.security.benchmarks;
+
+import com.sap.cloud.security.token.Token;
+import com.sap.cloud.security.token.XsuaaToken;
+import com.sap.cloud.security.xsuaa.jwt.Base64JwtDecoder;
+import com.sap.cloud.security.xsuaa.jwt.DecodedJwt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of the encoded token: base64 decoding of header, payload and
+ * signature and the parsing of the json when the {@link XsuaaToken} is
+ * created.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenDecodingBenchmark {
+
+	@Benchmark
+	public DecodedJwt base64JwtDecoder(TokenFixture fixture) {
+		return Base64JwtDecoder.getInstance().decode(fixture.getEncodedToken());
+	}
+
+	@Benchmark
+	public Token xsuaaToken(TokenFixture fixture) {
+		return new XsuaaToken(fixture.getEncodedToken());
+	}
+}
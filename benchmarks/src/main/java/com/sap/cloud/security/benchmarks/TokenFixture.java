@@ -0,0 +1,115 @@
+package com.sap.cloud.security.benchmarks;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.sap.cloud.security.config.OAuth2ServiceConfiguration;
+import com.sap.cloud.security.config.OAuth2ServiceConfigurationBuilder;
+import com.sap.cloud.security.config.Service;
+import com.sap.cloud.security.config.cf.CFConstants;
+import com.sap.cloud.security.test.JwtGenerator;
+import com.sap.cloud.security.test.RSAKeys;
+import com.sap.cloud.security.token.Token;
+import com.sap.cloud.security.token.TokenHeader;
+import com.sap.cloud.security.xsuaa.jwt.Base64JwtDecoder;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+
+/**
+ * Provides a realistic XSUAA access token, generated with the
+ * {@link JwtGenerator}, and a local identity service stub that serves the json
+ * web keys to verify it.
+ */
+@State(Scope.Benchmark)
+public class TokenFixture {
+	static final String CLIENT_ID = "sb-clientId!t0815";
+	static final String APP_ID = "xsapp!t0815";
+	static final String UAA_DOMAIN = "localhost";
+	private static final String TOKEN_KEYS_PATH = "/token_keys";
+	private static final String KEY_ID = "default-kid";
+
+	private WireMockServer identityService;
+	private RSAKeys keys;
+	private String encodedToken;
+	private String payload;
+	private OAuth2ServiceConfiguration configuration;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		keys = RSAKeys.generate();
+		identityService = new WireMockServer(options().dynamicPort());
+		identityService.start();
+		identityService.stubFor(get(urlEqualTo(TOKEN_KEYS_PATH))
+				.willReturn(aResponse().withBody(createTokenKeys())));
+
+		Token token = JwtGenerator.getInstance(Service.XSUAA, CLIENT_ID)
+				.withPrivateKey(keys.getPrivate())
+				.withHeaderParameter(TokenHeader.JWKS_URL, identityService.baseUrl() + TOKEN_KEYS_PATH)
+				.withHeaderParameter(TokenHeader.KEY_ID, KEY_ID)
+				.withAppId(APP_ID)
+				.withClaimsFromFile("/xsuaaAccessTokenClaims.json")
+				.createToken();
+		encodedToken = token.getTokenValue();
+		payload = Base64JwtDecoder.getInstance().decode(encodedToken).getPayload();
+		configuration = OAuth2ServiceConfigurationBuilder.forService(Service.XSUAA)
+				.withClientId(CLIENT_ID)
+				.withClientSecret("clientSecret")
+				.withUrl("http://" + UAA_DOMAIN)
+				.withProperty(CFConstants.XSUAA.UAA_DOMAIN, UAA_DOMAIN)
+				.withProperty(CFConstants.XSUAA.APP_ID, APP_ID)
+				.build();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		identityService.stop();
+	}
+
+	/**
+	 * @return the signed token as it is sent in the authorization header.
+	 */
+	public String getEncodedToken() {
+		return encodedToken;
+	}
+
+	/**
+	 * @return the decoded json payload of the token.
+	 */
+	public String getPayload() {
+		return payload;
+	}
+
+	/**
+	 * @return the service configuration the token is issued for.
+	 */
+	public OAuth2ServiceConfiguration getConfiguration() {
+		return configuration;
+	}
+
+	/**
+	 * @return the key pair the token is signed with.
+	 */
+	public RSAKeys getKeys() {
+		return keys;
+	}
+
+	private String createTokenKeys() throws IOException {
+		RSAPublicKey publicKey = (RSAPublicKey) keys.getPublic();
+		return IOUtils.resourceToString("/token_keys_template.json", StandardCharsets.UTF_8)
+				.replace("$kid", KEY_ID)
+				.replace("$public_key", Base64.getEncoder().encodeToString(publicKey.getEncoded()))
+				.replace("$modulus", Base64.getUrlEncoder().encodeToString(publicKey.getModulus().toByteArray()));
+	}
+}
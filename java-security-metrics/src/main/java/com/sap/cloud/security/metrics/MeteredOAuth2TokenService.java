@@ -0,0 +1,123 @@
+package com.sap.cloud.security.metrics;
+
+import static com.sap.cloud.security.xsuaa.client.OAuth2TokenServiceConstants.*;
+
+import com.sap.cloud.security.config.Service;
+import com.sap.cloud.security.xsuaa.Assertions;
+import com.sap.cloud.security.xsuaa.client.ClientCredentials;
+import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
+import com.sap.cloud.security.xsuaa.client.OAuth2TokenResponse;
+import com.sap.cloud.security.xsuaa.client.OAuth2TokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import javax.annotation.Nullable;
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Decorates an {@link OAuth2TokenService}, e.g. the
+ * {@code XsuaaOAuth2TokenService}, and records the duration of the token
+ * requests as timer {@value #METER_NAME} with percentile histogram, tagged
+ * with the service, the grant type and the outcome ({@code success} or
+ * {@code failure}).
+ *
+ * <pre>
+ * {@code
+ * OAuth2TokenService tokenService = new MeteredOAuth2TokenService(
+ * 		new XsuaaOAuth2TokenService(), Service.XSUAA, meterRegistry);
+ * }
+ * </pre>
+ */
+public class MeteredOAuth2TokenService implements OAuth2TokenService {
+	static final String METER_NAME = "token.requests";
+
+	private final OAuth2TokenService tokenService;
+	private final String serviceName;
+	private final MeterRegistry registry;
+
+	/**
+	 * Creates the decorator.
+	 *
+	 * @param tokenService
+	 *            the token service to delegate to
+	 * @param service
+	 *            the identity service the tokens are requested from
+	 * @param registry
+	 *            the registry to record the timers in
+	 */
+	public MeteredOAuth2TokenService(OAuth2TokenService tokenService, Service service, MeterRegistry registry) {
+		Assertions.assertNotNull(tokenService, "tokenService must not be null.");
+		Assertions.assertNotNull(service, "service must not be null.");
+		Assertions.assertNotNull(registry, "registry must not be null.");
+		this.tokenService = tokenService;
+		this.serviceName = MetricsTags.serviceName(service);
+		this.registry = registry;
+	}
+
+	@Override
+	public OAuth2TokenResponse retrieveAccessTokenViaClientCredentialsGrant(URI tokenEndpointUri,
+			ClientCredentials clientCredentials, @Nullable String subdomain,
+			@Nullable Map<String, String> optionalParameters) throws OAuth2ServiceException {
+		return record(GRANT_TYPE_CLIENT_CREDENTIALS, () -> tokenService
+				.retrieveAccessTokenViaClientCredentialsGrant(tokenEndpointUri, clientCredentials, subdomain,
+						optionalParameters));
+	}
+
+	@Override
+	@Deprecated
+	public OAuth2TokenResponse retrieveAccessTokenViaUserTokenGrant(URI tokenEndpointUri,
+			ClientCredentials clientCredentials, String token, @Nullable String subdomain,
+			@Nullable Map<String, String> optionalParameters) throws OAuth2ServiceException {
+		return record(GRANT_TYPE_USER_TOKEN, () -> tokenService
+				.retrieveAccessTokenViaUserTokenGrant(tokenEndpointUri, clientCredentials, token, subdomain,
+						optionalParameters));
+	}
+
+	@Override
+	public OAuth2TokenResponse retrieveAccessTokenViaRefreshToken(URI tokenEndpointUri,
+			ClientCredentials clientCredentials, String refreshToken, @Nullable String subdomain)
+			throws OAuth2ServiceException {
+		return record(GRANT_TYPE_REFRESH_TOKEN, () -> tokenService
+				.retrieveAccessTokenViaRefreshToken(tokenEndpointUri, clientCredentials, refreshToken, subdomain));
+	}
+
+	@Override
+	public OAuth2TokenResponse retrieveAccessTokenViaPasswordGrant(URI tokenEndpointUri,
+			ClientCredentials clientCredentials, String username, String password, @Nullable String subdomain,
+			@Nullable Map<String, String> optionalParameters) throws OAuth2ServiceException {
+		return record(GRANT_TYPE_PASSWORD, () -> tokenService
+				.retrieveAccessTokenViaPasswordGrant(tokenEndpointUri, clientCredentials, username, password,
+						subdomain, optionalParameters));
+	}
+
+	@Override
+	public OAuth2TokenResponse retrieveAccessTokenViaJwtBearerTokenGrant(URI tokenEndpointUri,
+			ClientCredentials clientCredentials, String token, @Nullable String subdomain,
+			@Nullable Map<String, String> optionalParameters) throws OAuth2ServiceException {
+		return record(GRANT_TYPE_JWT_BEARER, () -> tokenService
+				.retrieveAccessTokenViaJwtBearerTokenGrant(tokenEndpointUri, clientCredentials, token, subdomain,
+						optionalParameters));
+	}
+
+	private OAuth2TokenResponse record(String grantType, TokenRequest request) throws OAuth2ServiceException {
+		Timer.Sample sample = Timer.start(registry);
+		String outcome = "failure";
+		try {
+			OAuth2TokenResponse response = request.execute();
+			outcome = "success";
+			return response;
+		} finally {
+			sample.stop(Timer.builder(METER_NAME)
+					.tags(MetricsTags.SERVICE, serviceName, "grant_type", grantType, MetricsTags.OUTCOME, outcome)
+					.description("Requests to the token endpoint of the identity service")
+					.publishPercentileHistogram()
+					.register(registry));
+		}
+	}
+
+	@FunctionalInterface
+	private interface TokenRequest {
+		OAuth2TokenResponse execute() throws OAuth2ServiceException;
+	}
+}
@@ -0,0 +1,21 @@
+package com.sap.cloud.security.metrics;
+
+import com.sap.cloud.security.config.Service;
+
+import java.util.Locale;
+
+/**
+ * The tags shared by the meters of this module.
+ */
+final class MetricsTags {
+	static final String SERVICE = "service";
+	static final String OUTCOME = "outcome";
+
+	private MetricsTags() {
+		// use constants
+	}
+
+	static String serviceName(Service service) {
+		return service.name().toLowerCase(Locale.ROOT);
+	}
+}
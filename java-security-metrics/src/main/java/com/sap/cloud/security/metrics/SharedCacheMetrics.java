@@ -0,0 +1,63 @@
+package com.sap.cloud.security.metrics;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sap.cloud.security.token.validation.validators.SharedCacheRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Exposes the statistics of the json web key and oidc configuration caches
+ * shared by all validators of the process (see {@link SharedCacheRegistry}):
+ * <ul>
+ * <li>{@code cache.gets} tagged with {@code result} {@code hit} or
+ * {@code miss}</li>
+ * <li>{@code cache.loads} tagged with {@code outcome} {@code success} or
+ * {@code failure}</li>
+ * <li>{@code cache.load.duration}, the time spent to request the identity
+ * service</li>
+ * <li>{@code cache.evictions}</li>
+ * </ul>
+ * The meters are tagged with {@code cache} {@value #TOKEN_KEYS} or
+ * {@value #OIDC_CONFIGURATION}.
+ */
+public class SharedCacheMetrics implements MeterBinder {
+	static final String TOKEN_KEYS = "token-keys";
+	static final String OIDC_CONFIGURATION = "oidc-configuration";
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		bindTo(registry, TOKEN_KEYS, SharedCacheRegistry.getInstance()::getTokenKeyCacheStats);
+		bindTo(registry, OIDC_CONFIGURATION, SharedCacheRegistry.getInstance()::getOidcConfigurationCacheStats);
+	}
+
+	private static void bindTo(MeterRegistry registry, String cacheName, Supplier<CacheStats> stats) {
+		Tags tags = Tags.of("cache", cacheName);
+		counter(registry, "cache.gets", tags.and("result", "hit"), stats, CacheStats::hitCount);
+		counter(registry, "cache.gets", tags.and("result", "miss"), stats, CacheStats::missCount);
+		counter(registry, "cache.loads", tags.and(MetricsTags.OUTCOME, "success"), stats,
+				CacheStats::loadSuccessCount);
+		counter(registry, "cache.loads", tags.and(MetricsTags.OUTCOME, "failure"), stats,
+				CacheStats::loadFailureCount);
+		counter(registry, "cache.evictions", tags, stats, CacheStats::evictionCount);
+		FunctionTimer.builder("cache.load.duration", stats,
+				s -> s.get().loadCount(),
+				s -> s.get().totalLoadTime(), TimeUnit.NANOSECONDS)
+				.tags(tags)
+				.description("The time spent to request the identity service")
+				.register(registry);
+	}
+
+	private static void counter(MeterRegistry registry, String name, Tags tags, Supplier<CacheStats> stats,
+			ToLongFunction<CacheStats> count) {
+		FunctionCounter.builder(name, stats, s -> count.applyAsLong(s.get()))
+				.tags(tags)
+				.register(registry);
+	}
+}
@@ -0,0 +1,78 @@
+package com.sap.cloud.security.metrics;
+
+import com.sap.cloud.security.config.Service;
+import com.sap.cloud.security.token.validation.CombiningValidator;
+import com.sap.cloud.security.token.validation.ValidatorStatistics;
+import com.sap.cloud.security.xsuaa.Assertions;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes the {@link ValidatorStatistics} of a {@link CombiningValidator} as
+ * timer {@value #METER_NAME} per validator, tagged with the service, the
+ * validator and the outcome ({@code valid} or {@code invalid}). The validator
+ * tag consists of the class name and the position of the validator, e.g.
+ * {@code JwtTimestampValidator#0}, so that validators of the same class get
+ * their own timers. Binding enables the statistics of the validator, see
+ * {@link CombiningValidator#withStatistics()}.
+ *
+ * <pre>
+ * {@code
+ * CombiningValidator<Token> validators = JwtValidatorBuilder.getInstance(serviceConfig).build();
+ * new TokenValidationMetrics(validators, Service.XSUAA).bindTo(meterRegistry);
+ * }
+ * </pre>
+ */
+public class TokenValidationMetrics implements MeterBinder {
+	static final String METER_NAME = "token.validation";
+
+	private final CombiningValidator<?> validator;
+	private final Service service;
+
+	/**
+	 * Creates the metrics for the validator.
+	 *
+	 * @param validator
+	 *            the validator, e.g. built by the {@code JwtValidatorBuilder}
+	 * @param service
+	 *            the identity service the validator validates the tokens of
+	 */
+	public TokenValidationMetrics(CombiningValidator<?> validator, Service service) {
+		Assertions.assertNotNull(validator, "validator must not be null.");
+		Assertions.assertNotNull(service, "service must not be null.");
+		this.validator = validator;
+		this.service = service;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		List<ValidatorStatistics> validatorStatistics = validator.withStatistics().getStatistics();
+		for (int position = 0; position < validatorStatistics.size(); position++) {
+			ValidatorStatistics statistics = validatorStatistics.get(position);
+			FunctionTimer.builder(METER_NAME, statistics,
+					ValidatorStatistics::getAcceptances,
+					ValidatorStatistics::getAcceptanceNanos, TimeUnit.NANOSECONDS)
+					.tags(tags(statistics, position, "valid"))
+					.description("Token validations that passed the validator")
+					.register(registry);
+			FunctionTimer.builder(METER_NAME, statistics,
+					ValidatorStatistics::getRejections,
+					ValidatorStatistics::getRejectionNanos, TimeUnit.NANOSECONDS)
+					.tags(tags(statistics, position, "invalid"))
+					.description("Token validations that were rejected by the validator")
+					.register(registry);
+		}
+	}
+
+	private Tags tags(ValidatorStatistics statistics, int position, String outcome) {
+		String validatorName = statistics.getValidatorName();
+		return Tags.of(MetricsTags.SERVICE, MetricsTags.serviceName(service),
+				"validator", validatorName.substring(validatorName.lastIndexOf('.') + 1) + '#' + position,
+				MetricsTags.OUTCOME, outcome);
+	}
+}
@@ -0,0 +1,30 @@
+package com.sap.cloud.security.metrics;
+
+import com.sap.cloud.security.token.validation.ValidationErrorCode;
+import com.sap.cloud.security.token.validation.ValidationFailureLogger;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exposes the number of invalid validation results as counter
+ * {@value #METER_NAME}, tagged with the {@link ValidationErrorCode} as
+ * {@code reason}. The counts are taken from the
+ * {@link ValidationFailureLogger} and comprise the failures of all validators
+ * of the process.
+ */
+public class ValidationFailureMetrics implements MeterBinder {
+	static final String METER_NAME = "token.validation.failures";
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		ValidationFailureLogger failureLogger = ValidationFailureLogger.getInstance();
+		for (ValidationErrorCode errorCode : ValidationErrorCode.values()) {
+			FunctionCounter.builder(METER_NAME, failureLogger,
+					logger -> logger.getFailureCount(errorCode))
+					.tag("reason", errorCode.name())
+					.description("Invalid token validation results")
+					.register(registry);
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package com.sap.cloud.security.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.sap.cloud.security.config.Service;
+import com.sap.cloud.security.xsuaa.client.ClientCredentials;
+import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
+import com.sap.cloud.security.xsuaa.client.OAuth2TokenResponse;
+import com.sap.cloud.security.xsuaa.client.OAuth2TokenService;
+import com.sap.cloud.security.xsuaa.client.OAuth2TokenServiceConstants;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+
+public class MeteredOAuth2TokenServiceTest {
+
+	private static final URI TOKEN_ENDPOINT = URI.create("https://subdomain.myauth.server.com/oauth/token");
+	private static final ClientCredentials CLIENT_CREDENTIALS = new ClientCredentials("clientId", "clientSecret");
+
+	private OAuth2TokenService tokenServiceMock;
+	private SimpleMeterRegistry registry;
+	private MeteredOAuth2TokenService cut;
+
+	@Before
+	public void setUp() {
+		tokenServiceMock = mock(OAuth2TokenService.class);
+		registry = new SimpleMeterRegistry();
+		cut = new MeteredOAuth2TokenService(tokenServiceMock, Service.XSUAA, registry);
+	}
+
+	@Test
+	public void clientCredentialsGrant_recordsSuccess() throws OAuth2ServiceException {
+		OAuth2TokenResponse response = new OAuth2TokenResponse("accessToken", 100, null);
+		when(tokenServiceMock.retrieveAccessTokenViaClientCredentialsGrant(TOKEN_ENDPOINT, CLIENT_CREDENTIALS,
+				null, null)).thenReturn(response);
+
+		assertThat(cut.retrieveAccessTokenViaClientCredentialsGrant(TOKEN_ENDPOINT, CLIENT_CREDENTIALS, null,
+				null)).isSameAs(response);
+
+		Timer timer = timer(OAuth2TokenServiceConstants.GRANT_TYPE_CLIENT_CREDENTIALS, "success");
+		assertThat(timer.count()).isEqualTo(1);
+		assertThat(timer.getId().getTag("service")).isEqualTo("xsuaa");
+	}
+
+	@Test
+	public void refreshToken_recordsFailure() throws OAuth2ServiceException {
+		when(tokenServiceMock.retrieveAccessTokenViaRefreshToken(any(), any(), eq("refreshToken"), any()))
+				.thenThrow(new OAuth2ServiceException("unauthorized"));
+
+		assertThatThrownBy(() -> cut.retrieveAccessTokenViaRefreshToken(TOKEN_ENDPOINT, CLIENT_CREDENTIALS,
+				"refreshToken", null)).isInstanceOf(OAuth2ServiceException.class);
+
+		assertThat(timer(OAuth2TokenServiceConstants.GRANT_TYPE_REFRESH_TOKEN, "failure").count()).isEqualTo(1);
+		assertThat(registry.find(MeteredOAuth2TokenService.METER_NAME).tag("outcome", "success").timer())
+				.isNull();
+	}
+
+	@Test
+	public void grantTypes_recordedSeparately() throws OAuth2ServiceException {
+		cut.retrieveAccessTokenViaPasswordGrant(TOKEN_ENDPOINT, CLIENT_CREDENTIALS, "user", "password", null,
+				null);
+		cut.retrieveAccessTokenViaJwtBearerTokenGrant(TOKEN_ENDPOINT, CLIENT_CREDENTIALS, "token", null, null);
+		cut.retrieveAccessTokenViaJwtBearerTokenGrant(TOKEN_ENDPOINT, CLIENT_CREDENTIALS, "token", null, null);
+
+		assertThat(timer(OAuth2TokenServiceConstants.GRANT_TYPE_PASSWORD, "success").count()).isEqualTo(1);
+		assertThat(timer(OAuth2TokenServiceConstants.GRANT_TYPE_JWT_BEARER, "success").count()).isEqualTo(2);
+	}
+
+	@Test
+	public void constructor_throwsOnNullValues() {
+		assertThatThrownBy(() -> new MeteredOAuth2TokenService(null, Service.XSUAA, registry))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("tokenService");
+		assertThatThrownBy(() -> new MeteredOAuth2TokenService(tokenServiceMock, Service.XSUAA, null))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("registry");
+	}
+
+	private Timer timer(String grantType, String outcome) {
+		return registry.get(MeteredOAuth2TokenService.METER_NAME)
+				.tag("grant_type", grantType)
+				.tag("outcome", outcome)
+				.timer();
+	}
+}
@@ -0,0 +1,41 @@
+package com.sap.cloud.security.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sap.cloud.security.token.validation.validators.SharedCacheRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SharedCacheMetricsTest {
+
+	private SimpleMeterRegistry registry;
+
+	@Before
+	public void setUp() {
+		registry = new SimpleMeterRegistry();
+		new SharedCacheMetrics().bindTo(registry);
+	}
+
+	@Test
+	public void registersMetersPerCache() {
+		assertThat(registry.find("cache.gets").tag("cache", SharedCacheMetrics.TOKEN_KEYS).functionCounters())
+				.hasSize(2);
+		assertThat(registry.find("cache.loads").tag("cache", SharedCacheMetrics.TOKEN_KEYS).functionCounters())
+				.hasSize(2);
+		assertThat(registry.find("cache.evictions").tag("cache", SharedCacheMetrics.TOKEN_KEYS).functionCounter())
+				.isNotNull();
+		assertThat(registry.find("cache.load.duration").tag("cache", SharedCacheMetrics.OIDC_CONFIGURATION)
+				.functionTimer()).isNotNull();
+	}
+
+	@Test
+	public void reportsStatisticsOfSharedCaches() {
+		assertThat(registry.get("cache.gets").tags("cache", SharedCacheMetrics.TOKEN_KEYS, "result", "miss")
+				.functionCounter().count())
+						.isEqualTo(SharedCacheRegistry.getInstance().getTokenKeyCacheStats().missCount());
+		assertThat(registry.get("cache.load.duration").tag("cache", SharedCacheMetrics.OIDC_CONFIGURATION)
+				.functionTimer().count())
+						.isEqualTo(SharedCacheRegistry.getInstance().getOidcConfigurationCacheStats().loadCount());
+	}
+}
@@ -0,0 +1,104 @@
+package com.sap.cloud.security.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sap.cloud.security.config.Service;
+import com.sap.cloud.security.token.validation.CombiningValidator;
+import com.sap.cloud.security.token.validation.ValidationResult;
+import com.sap.cloud.security.token.validation.ValidationResults;
+import com.sap.cloud.security.token.validation.Validator;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class TokenValidationMetricsTest {
+	private static final String NOT_EMPTY = "TokenValidationMetricsTest$NotEmptyValidator#0";
+	private static final String UPPER_CASE = "TokenValidationMetricsTest$UpperCaseValidator#1";
+
+	private SimpleMeterRegistry registry;
+	private CombiningValidator<String> validator;
+
+	@Before
+	public void setUp() {
+		registry = new SimpleMeterRegistry();
+		validator = new CombiningValidator<>(new NotEmptyValidator(), new UpperCaseValidator());
+		new TokenValidationMetrics(validator, Service.XSUAA).bindTo(registry);
+	}
+
+	@Test
+	public void recordsValidationsPerValidatorAndOutcome() {
+		validator.validate("ABC");
+		validator.validate("abc");
+		validator.validate("");
+
+		assertThat(timer(NOT_EMPTY, "valid").count()).isEqualTo(2);
+		assertThat(timer(NOT_EMPTY, "invalid").count()).isEqualTo(1);
+		assertThat(timer(UPPER_CASE, "valid").count()).isEqualTo(1);
+		assertThat(timer(UPPER_CASE, "invalid").count()).isEqualTo(1);
+	}
+
+	@Test
+	public void recordsDuration() {
+		validator.validate("ABC");
+
+		assertThat(timer(NOT_EMPTY, "valid").totalTime(TimeUnit.NANOSECONDS))
+				.isGreaterThan(0);
+		assertThat(timer(NOT_EMPTY, "invalid").totalTime(TimeUnit.NANOSECONDS))
+				.isEqualTo(0);
+	}
+
+	@Test
+	public void taggedWithService() {
+		assertThat(registry.find(TokenValidationMetrics.METER_NAME).tag("service", "xsuaa").functionTimers())
+				.hasSize(4);
+	}
+
+	@Test
+	public void validatorsOfSameClass_getOwnTimers() {
+		registry = new SimpleMeterRegistry();
+		validator = new CombiningValidator<>(new NotEmptyValidator(), new NotEmptyValidator());
+		new TokenValidationMetrics(validator, Service.XSUAA).bindTo(registry);
+
+		validator.validate("ABC");
+
+		assertThat(registry.find(TokenValidationMetrics.METER_NAME).functionTimers()).hasSize(4);
+		assertThat(timer(NOT_EMPTY, "valid").count()).isEqualTo(1);
+		assertThat(timer("TokenValidationMetricsTest$NotEmptyValidator#1", "valid").count()).isEqualTo(1);
+	}
+
+	@Test
+	public void constructor_throwsOnNullValues() {
+		assertThatThrownBy(() -> new TokenValidationMetrics(null, Service.XSUAA))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("validator");
+		assertThatThrownBy(() -> new TokenValidationMetrics(validator, null))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("service");
+	}
+
+	private FunctionTimer timer(String validatorName, String outcome) {
+		return registry.get(TokenValidationMetrics.METER_NAME)
+				.tag("validator", validatorName)
+				.tag("outcome", outcome)
+				.functionTimer();
+	}
+
+	private static class NotEmptyValidator implements Validator<String> {
+		@Override
+		public ValidationResult validate(String value) {
+			return value.isEmpty() ? ValidationResults.createInvalid("empty") : ValidationResults.createValid();
+		}
+	}
+
+	private static class UpperCaseValidator implements Validator<String> {
+		@Override
+		public ValidationResult validate(String value) {
+			return value.equals(value.toUpperCase()) ? ValidationResults.createValid()
+					: ValidationResults.createInvalid("not upper case");
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package com.sap.cloud.security.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sap.cloud.security.token.validation.ValidationErrorCode;
+import com.sap.cloud.security.token.validation.ValidationResults;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+public class ValidationFailureMetricsTest {
+
+	@Test
+	public void countsFailuresPerReason() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		new ValidationFailureMetrics().bindTo(registry);
+		double expiredBefore = count(registry, ValidationErrorCode.EXPIRED);
+		double untrustedIssuerBefore = count(registry, ValidationErrorCode.UNTRUSTED_ISSUER);
+
+		ValidationResults.createInvalid(ValidationErrorCode.EXPIRED, "expired");
+		ValidationResults.createInvalid(ValidationErrorCode.EXPIRED, "expired");
+
+		assertThat(count(registry, ValidationErrorCode.EXPIRED)).isEqualTo(expiredBefore + 2);
+		assertThat(count(registry, ValidationErrorCode.UNTRUSTED_ISSUER)).isEqualTo(untrustedIssuerBefore);
+		assertThat(registry.find(ValidationFailureMetrics.METER_NAME).functionCounters())
+				.hasSize(ValidationErrorCode.values().length);
+	}
+
+	private static double count(SimpleMeterRegistry registry, ValidationErrorCode errorCode) {
+		return registry.get(ValidationFailureMetrics.METER_NAME)
+				.tag("reason", errorCode.name())
+				.functionCounter().count();
+	}
+}
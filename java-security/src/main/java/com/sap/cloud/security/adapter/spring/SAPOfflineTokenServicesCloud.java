@@ -9,9 +9,12 @@ import com.sap.cloud.security.token.SecurityContext;
 import com.sap.cloud.security.token.Token;
 import com.sap.cloud.security.token.XsuaaScopeConverter;
 import com.sap.cloud.security.token.XsuaaToken;
+import com.sap.cloud.security.token.validation.ValidationErrorCode;
 import com.sap.cloud.security.token.validation.ValidationResult;
+import com.sap.cloud.security.token.validation.ValidationResults;
 import com.sap.cloud.security.token.validation.Validator;
 import com.sap.cloud.security.token.validation.validators.JwtValidatorBuilder;
+import com.sap.cloud.security.token.validation.validators.RejectedTokenCache;
 import com.sap.cloud.security.xsuaa.Assertions;
 import com.sap.cloud.security.xsuaa.client.SpringOAuth2TokenKeyService;
 import com.sap.cloud.security.xsuaa.client.SpringOidcConfigurationService;
@@ -30,6 +33,7 @@ import org.springframework.web.client.RestOperations;
 import org.springframework.web.client.RestTemplate;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -79,6 +83,7 @@ public class SAPOfflineTokenServicesCloud implements ResourceServerTokenServices
 	private JwtValidatorBuilder jwtValidatorBuilder;
 	private boolean useLocalScopeAsAuthorities;
 	private ScopeConverter xsuaaScopeConverter;
+	private RejectedTokenCache rejectedTokenCache;
 
 	/**
 	 * Constructs an instance which is preconfigured for XSUAA service configuration
@@ -115,8 +120,8 @@ public class SAPOfflineTokenServicesCloud implements ResourceServerTokenServices
 	public SAPOfflineTokenServicesCloud(OAuth2ServiceConfiguration serviceConfiguration,
 			RestOperations restOperations) {
 		this(serviceConfiguration, JwtValidatorBuilder.getInstance(serviceConfiguration)
-				.withOAuth2TokenKeyService(new SpringOAuth2TokenKeyService(restOperations))
-				.withOidcConfigurationService(new SpringOidcConfigurationService(restOperations)));
+				.withOAuth2TokenKeyService(new SpringOAuth2TokenKeyService(restOperations), restOperations)
+				.withOidcConfigurationService(new SpringOidcConfigurationService(restOperations), restOperations));
 
 	}
 
@@ -128,7 +133,7 @@ public class SAPOfflineTokenServicesCloud implements ResourceServerTokenServices
 		this.serviceConfiguration = serviceConfiguration;
 		this.jwtValidatorBuilder = jwtValidatorBuilder;
 		if (serviceConfiguration.hasProperty(CFConstants.XSUAA.APP_ID)) {
-			this.xsuaaScopeConverter = new XsuaaScopeConverter(
+			this.xsuaaScopeConverter = XsuaaScopeConverter.getInstance(
 					serviceConfiguration.getProperty(CFConstants.XSUAA.APP_ID));
 		}
 	}
@@ -148,14 +153,35 @@ public class SAPOfflineTokenServicesCloud implements ResourceServerTokenServices
 		return this;
 	}
 
+	/**
+	 * Enables caching of recently rejected tokens. A token that is presented again
+	 * within the cache time is rejected without being decoded and validated again.
+	 * Disabled by default.
+	 *
+	 * @param rejectedTokenCache
+	 *            the cache, e.g. {@code RejectedTokenCache.getInstance()}
+	 * @return the instance itself
+	 */
+	public SAPOfflineTokenServicesCloud withRejectedTokenCache(@Nullable RejectedTokenCache rejectedTokenCache) {
+		this.rejectedTokenCache = rejectedTokenCache;
+		return this;
+	}
+
 	@Override
 	public OAuth2Authentication loadAuthentication(@Nonnull String accessToken)
 			throws AuthenticationException, InvalidTokenException {
+		if (rejectedTokenCache != null) {
+			ValidationResult rejectedResult = rejectedTokenCache.getIfPresent(accessToken);
+			if (rejectedResult != null) {
+				throw new InvalidTokenException(rejectedResult.getErrorDescription());
+			}
+		}
 		Token token = checkAndCreateToken(accessToken);
 
 		ValidationResult validationResult = tokenValidator.validate(token);
 
 		if (validationResult.isErroneous()) {
+			rememberRejected(accessToken, validationResult);
 			throw new InvalidTokenException(validationResult.getErrorDescription());
 		}
 		SecurityContext.setToken(token);
@@ -222,8 +248,18 @@ public class SAPOfflineTokenServicesCloud implements ResourceServerTokenServices
 				throw new InvalidTokenException(
 						"AccessToken of service " + serviceConfiguration.getService() + " is not supported.");
 			}
+		} catch (InvalidTokenException e) {
+			throw e;
 		} catch (Exception e) {
+			rememberRejected(accessToken, ValidationResults.createInvalid(ValidationErrorCode.MALFORMED_TOKEN,
+					"{}", e.getMessage()));
 			throw new InvalidTokenException(e.getMessage());
 		}
 	}
+
+	private void rememberRejected(String accessToken, ValidationResult validationResult) {
+		if (rejectedTokenCache != null) {
+			rejectedTokenCache.put(accessToken, validationResult);
+		}
+	}
 }
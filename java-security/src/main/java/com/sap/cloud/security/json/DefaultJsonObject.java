@@ -1,26 +1,29 @@
 package com.sap.cloud.security.json;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import javax.annotation.Nullable;
-import java.time.DateTimeException;
 import java.time.Instant;
-import java.util.*;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Use this class to parse a Json String. This might be relevant in case the
  * {@link com.sap.cloud.security.config.OAuth2ServiceConfiguration} does not
  * provide all required properties.
+ * <p>
+ * The Json String is parsed by the json backend, the
+ * {@link JsonObjectProvider}, that is discovered on the classpath. By default
+ * {@code org.json} is used. Another backend can be selected by name with system
+ * property {@value #JSON_PROVIDER_PROPERTY}, e.g. "jackson".
  */
 public class DefaultJsonObject implements JsonObject {
 
-	private static final Logger LOGGER = LoggerFactory.getLogger(DefaultJsonObject.class);
+	/**
+	 * System property to select the json backend by its
+	 * {@link JsonObjectProvider#getName()}.
+	 */
+	public static final String JSON_PROVIDER_PROPERTY = "com.sap.cloud.security.json.provider";
 
-	private JSONObject jsonObject;
+	private final JsonObject jsonObject;
 
 	/**
 	 * Create an instance
@@ -29,156 +32,59 @@ public class DefaultJsonObject implements JsonObject {
 	 *            the content in json format that should be parsed.
 	 */
 	public DefaultJsonObject(String jsonString) {
-		this.jsonObject = createJsonObject(jsonString);
+		this(jsonString, JsonObjectProviders.getProvider());
+	}
+
+	DefaultJsonObject(String jsonString, JsonObjectProvider provider) {
+		this.jsonObject = provider.create(jsonString);
 	}
 
 	@Override
 	public boolean contains(String key) {
-		return getJsonObject().has(key);
+		return jsonObject.contains(key);
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return getJsonObject().isEmpty();
+		return jsonObject.isEmpty();
 	}
 
 	@Override
 	public <T> List<T> getAsList(String name, Class<T> type) {
-		return getJSONArray(name).map(jsonArray -> castToListOfType(jsonArray, type)).orElse(Collections.emptyList());
+		return jsonObject.getAsList(name, type);
 	}
 
 	@Override
 	@Nullable
 	public String getAsString(String name) {
-		if (contains(name)) {
-			try {
-				return getJsonObject().getString(name);
-			} catch (JSONException e) {
-				throw new JsonParsingException(e.getMessage());
-			}
-		}
-		return null;
+		return jsonObject.getAsString(name);
 	}
 
 	@Override
 	@Nullable
 	public Instant getAsInstant(String name) {
-		if (contains(name)) {
-			return getLong(name)
-					.map(this::convertToInstant)
-					.orElse(null);
-		}
-		return null;
+		return jsonObject.getAsInstant(name);
 	}
 
 	@Override
 	@Nullable
 	public JsonObject getJsonObject(String name) {
-		if (contains(name)) {
-			JSONObject newJsonObject;
-			try {
-				newJsonObject = getJsonObject().getJSONObject(name);
-			} catch (JSONException e) {
-				throw new JsonParsingException(e.getMessage());
-			}
-			return Optional.ofNullable(newJsonObject)
-					.map(Object::toString)
-					.map(DefaultJsonObject::new)
-					.orElse(null);
-		}
-		return null;
+		return jsonObject.getJsonObject(name);
 	}
 
 	@Override
 	public List<JsonObject> getJsonObjects(String name) {
-		return getJSONArray(name)
-				.map(this::convertToJsonObjects)
-				.orElse(new ArrayList<>());
+		return jsonObject.getJsonObjects(name);
 	}
 
 	@Override
 	public Map<String, String> getKeyValueMap() {
-		Map<String, String> map = new HashMap<>();
-		Iterator<String> keysItr = getJsonObject().keys();
-		while (keysItr.hasNext()) {
-			String key = keysItr.next();
-			Object value = jsonObject.get(key);
-			if (value instanceof String) {
-				map.put(key, String.valueOf(value));
-			}
-		}
-		return map;
+		return jsonObject.getKeyValueMap();
 	}
 
 	@Override
 	public String asJsonString() {
-		return jsonObject.toString();
-	}
-
-	private List<JsonObject> convertToJsonObjects(JSONArray jsonArray) {
-		List<JsonObject> jsonObjects = new ArrayList<>();
-		jsonArray.forEach(jsonArrayObject -> {
-			if (jsonArrayObject instanceof JSONObject) {
-				jsonObjects.add(new DefaultJsonObject(jsonArrayObject.toString()));
-			} else {
-				throw new JsonParsingException("Array does not only contain json objects!");
-			}
-		});
-		return jsonObjects;
-	}
-
-	private Optional<Long> getLong(String name) {
-		try {
-			return Optional.ofNullable(getJsonObject().getLong(name));
-		} catch (JSONException e) {
-			throw new JsonParsingException(e.getMessage());
-		}
-	}
-
-	private Instant convertToInstant(long epochSeconds) {
-		try {
-			return Instant.ofEpochSecond(epochSeconds);
-		} catch (DateTimeException | NumberFormatException e) {
-			throw new JsonParsingException(e.getMessage());
-		}
-	}
-
-	private <T> List<T> castToListOfType(JSONArray jsonArray, Class<T> type) {
-		List<T> valuesAsList = new ArrayList<>(jsonArray.length());
-		for (int i = 0; i < jsonArray.length(); i++) {
-			Object value = jsonArray.get(i);
-			try {
-				valuesAsList.add(type.cast(value));
-			} catch (ClassCastException e) {
-				throw new JsonParsingException(e.getMessage());
-			}
-		}
-		return valuesAsList;
-	}
-
-	private Optional<JSONArray> getJSONArray(String name) {
-		if (contains(name)) {
-			try {
-				return Optional.ofNullable(getJsonObject().getJSONArray(name));
-			} catch (JSONException e) {
-				throw new JsonParsingException(e.getMessage());
-			}
-		}
-		return Optional.empty();
-	}
-
-	private JSONObject getJsonObject() {
-		return jsonObject;
-	}
-
-	private JSONObject createJsonObject(String jsonString) {
-		try {
-			JSONObject createdJsonObject = new JSONObject(jsonString);
-			return createdJsonObject;
-		} catch (JSONException e) {
-			LOGGER.error("Given json string '{}' is not valid, error message: {}", jsonString, e.getMessage());
-			throw new JsonParsingException(e.getMessage());
-		}
+		return jsonObject.asJsonString();
 	}
 
 }
@@ -0,0 +1,259 @@
+package com.sap.cloud.security.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link JsonObject} implementation that is parsed in one pass with the
+ * streaming api of Jackson. <br>
+ * The members are kept in two arrays instead of a hash map per object: nested
+ * objects become {@link JacksonJsonObject} instances, arrays become
+ * unmodifiable lists, all other values are kept as {@link String},
+ * {@link Number} or {@link Boolean}.
+ */
+final class JacksonJsonObject implements JsonObject {
+	private static final JsonFactory JSON_FACTORY = new JsonFactory()
+			.enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION);
+	private static final Object NULL = new Object();
+
+	private final String[] keys;
+	private final Object[] values;
+
+	private JacksonJsonObject(String[] keys, Object[] values) {
+		this.keys = keys;
+		this.values = values;
+	}
+
+	static JacksonJsonObject parse(String jsonString) {
+		if (jsonString == null) {
+			throw new JsonParsingException("Json string must not be null.");
+		}
+		try (JsonParser parser = JSON_FACTORY.createParser(jsonString)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new JsonParsingException("A json object must begin with '{'.");
+			}
+			JacksonJsonObject jsonObject = parseObject(parser);
+			if (parser.nextToken() != null) {
+				throw new JsonParsingException("Unexpected content after the json object.");
+			}
+			return jsonObject;
+		} catch (IOException e) {
+			throw new JsonParsingException(e.getMessage());
+		}
+	}
+
+	private static JacksonJsonObject parseObject(JsonParser parser) throws IOException {
+		String[] keys = new String[8];
+		Object[] values = new Object[8];
+		int size = 0;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			if (size == keys.length) {
+				keys = Arrays.copyOf(keys, size * 2);
+				values = Arrays.copyOf(values, size * 2);
+			}
+			keys[size] = parser.getCurrentName();
+			parser.nextToken();
+			values[size] = parseValue(parser);
+			size++;
+		}
+		return new JacksonJsonObject(Arrays.copyOf(keys, size), Arrays.copyOf(values, size));
+	}
+
+	private static Object parseValue(JsonParser parser) throws IOException {
+		switch (parser.currentToken()) {
+		case START_OBJECT:
+			return parseObject(parser);
+		case START_ARRAY:
+			List<Object> list = new ArrayList<>();
+			while (parser.nextToken() != JsonToken.END_ARRAY) {
+				list.add(parseValue(parser));
+			}
+			return Collections.unmodifiableList(list);
+		case VALUE_STRING:
+			return parser.getText();
+		case VALUE_NUMBER_INT:
+		case VALUE_NUMBER_FLOAT:
+			return parser.getNumberValue();
+		case VALUE_TRUE:
+			return Boolean.TRUE;
+		case VALUE_FALSE:
+			return Boolean.FALSE;
+		case VALUE_NULL:
+			return NULL;
+		default:
+			throw new JsonParsingException("Unexpected json token " + parser.currentToken());
+		}
+	}
+
+	@Nullable
+	private Object getValue(String name) {
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i].equals(name)) {
+				return values[i];
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public boolean contains(String name) {
+		return getValue(name) != null;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return keys.length == 0;
+	}
+
+	@Override
+	public <T> List<T> getAsList(String name, Class<T> type) {
+		Object value = getValue(name);
+		if (value == null) {
+			return Collections.emptyList();
+		}
+		List<T> valuesAsList = new ArrayList<>();
+		for (Object element : asList(name, value)) {
+			try {
+				valuesAsList.add(type.cast(element == NULL ? null : element));
+			} catch (ClassCastException e) {
+				throw new JsonParsingException(e.getMessage());
+			}
+		}
+		return valuesAsList;
+	}
+
+	@Override
+	@Nullable
+	public String getAsString(String name) {
+		Object value = getValue(name);
+		if (value == null || value instanceof String) {
+			return (String) value;
+		}
+		throw new JsonParsingException(wrongTypeMessage(name, "a string"));
+	}
+
+	@Override
+	@Nullable
+	public Instant getAsInstant(String name) {
+		Object value = getValue(name);
+		if (value == null) {
+			return null;
+		}
+		try {
+			if (value instanceof Number) {
+				return Instant.ofEpochSecond(((Number) value).longValue());
+			}
+			if (value instanceof String) {
+				return Instant.ofEpochSecond(new BigDecimal((String) value).longValue());
+			}
+		} catch (DateTimeException | NumberFormatException e) {
+			throw new JsonParsingException(e.getMessage());
+		}
+		throw new JsonParsingException(wrongTypeMessage(name, "a number"));
+	}
+
+	@Override
+	@Nullable
+	public JsonObject getJsonObject(String name) {
+		Object value = getValue(name);
+		if (value == null || value instanceof JacksonJsonObject) {
+			return (JsonObject) value;
+		}
+		throw new JsonParsingException(wrongTypeMessage(name, "a JSONObject"));
+	}
+
+	@Override
+	public List<JsonObject> getJsonObjects(String name) {
+		Object value = getValue(name);
+		List<JsonObject> jsonObjects = new ArrayList<>();
+		if (value == null) {
+			return jsonObjects;
+		}
+		for (Object element : asList(name, value)) {
+			if (!(element instanceof JacksonJsonObject)) {
+				throw new JsonParsingException("Array does not only contain json objects!");
+			}
+			jsonObjects.add((JsonObject) element);
+		}
+		return jsonObjects;
+	}
+
+	@Override
+	public Map<String, String> getKeyValueMap() {
+		Map<String, String> map = new HashMap<>();
+		for (int i = 0; i < keys.length; i++) {
+			if (values[i] instanceof String) {
+				map.put(keys[i], (String) values[i]);
+			}
+		}
+		return map;
+	}
+
+	@Override
+	public String asJsonString() {
+		StringWriter writer = new StringWriter();
+		try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+			write(generator, this);
+		} catch (IOException e) {
+			throw new JsonParsingException(e.getMessage());
+		}
+		return writer.toString();
+	}
+
+	@Override
+	public String toString() {
+		return asJsonString();
+	}
+
+	private static List<?> asList(String name, Object value) {
+		if (value instanceof List) {
+			return (List<?>) value;
+		}
+		throw new JsonParsingException(wrongTypeMessage(name, "a JSONArray"));
+	}
+
+	private static String wrongTypeMessage(String name, String type) {
+		return "JSONObject[\"" + name + "\"] is not " + type + ".";
+	}
+
+	private static void write(JsonGenerator generator, Object value) throws IOException {
+		if (value instanceof JacksonJsonObject) {
+			JacksonJsonObject jsonObject = (JacksonJsonObject) value;
+			generator.writeStartObject();
+			for (int i = 0; i < jsonObject.keys.length; i++) {
+				generator.writeFieldName(jsonObject.keys[i]);
+				write(generator, jsonObject.values[i]);
+			}
+			generator.writeEndObject();
+		} else if (value instanceof List) {
+			generator.writeStartArray();
+			for (Object element : (List<?>) value) {
+				write(generator, element);
+			}
+			generator.writeEndArray();
+		} else if (value instanceof String) {
+			generator.writeString((String) value);
+		} else if (value instanceof Boolean) {
+			generator.writeBoolean((Boolean) value);
+		} else if (value instanceof Number) {
+			generator.writeNumber(value.toString());
+		} else {
+			generator.writeNull();
+		}
+	}
+}
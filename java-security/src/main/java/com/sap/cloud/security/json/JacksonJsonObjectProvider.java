@@ -0,0 +1,39 @@
+package com.sap.cloud.security.json;
+
+/**
+ * Json backend based on the streaming api of Jackson
+ * ({@code com.fasterxml.jackson.core:jackson-core}), which is available in
+ * most spring applications. <br>
+ * It is not used by default, it has to be selected with system property
+ * {@value DefaultJsonObject#JSON_PROVIDER_PROPERTY}={@value #NAME}.
+ */
+public class JacksonJsonObjectProvider implements JsonObjectProvider {
+	static final String NAME = "jackson";
+
+	/**
+	 * Creates the provider.
+	 *
+	 * @throws ClassNotFoundException
+	 *             in case jackson-core is not available on the classpath, the
+	 *             provider is skipped by the {@link java.util.ServiceLoader}
+	 *             then.
+	 */
+	public JacksonJsonObjectProvider() throws ClassNotFoundException {
+		Class.forName("com.fasterxml.jackson.core.JsonFactory", false, getClass().getClassLoader());
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public int getPriority() {
+		return -10;
+	}
+
+	@Override
+	public JsonObject create(String jsonString) {
+		return JacksonJsonObject.parse(jsonString);
+	}
+}
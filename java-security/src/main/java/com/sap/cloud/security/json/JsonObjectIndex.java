@@ -0,0 +1,306 @@
+package com.sap.cloud.security.json;
+
+import org.json.JSONException;
+import org.json.JSONTokener;
+
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Indexes the members of a json object without parsing their values. The json
+ * string is scanned once for the top-level keys and the offsets of their
+ * values, a value is only parsed as soon as it is accessed. <br>
+ * The syntax of all values, including nested objects and arrays, is validated
+ * while scanning without creating any objects, so that malformed json is still
+ * rejected when the json object is created.
+ */
+final class JsonObjectIndex {
+	private static final String[] LITERALS = { "true", "false", "null" };
+	private final String json;
+	private final Map<String, int[]> members;
+
+	private JsonObjectIndex(String json, Map<String, int[]> members) {
+		this.json = json;
+		this.members = members;
+	}
+
+	/**
+	 * Scans the top-level members of the json object.
+	 *
+	 * @param json
+	 *            the json object as string
+	 * @return the index or null, in case the string is no strict json object
+	 *         (e.g. is malformed, uses escaped or duplicate keys) and needs to be
+	 *         parsed as a whole.
+	 */
+	@Nullable
+	static JsonObjectIndex scan(String json) {
+		int i = skipWhitespace(json, 0);
+		if (!isAt(json, i, '{')) {
+			return null;
+		}
+		Map<String, int[]> members = new LinkedHashMap<>();
+		i = skipWhitespace(json, i + 1);
+		if (isAt(json, i, '}')) {
+			return skipWhitespace(json, i + 1) == json.length() ? new JsonObjectIndex(json, members) : null;
+		}
+		while (true) {
+			if (!isAt(json, i, '"')) {
+				return null;
+			}
+			int keyEnd = skipString(json, i);
+			if (keyEnd < 0 || hasEscapes(json, i, keyEnd)) {
+				return null;
+			}
+			String key = json.substring(i + 1, keyEnd - 1);
+			i = skipWhitespace(json, keyEnd);
+			if (!isAt(json, i, ':')) {
+				return null;
+			}
+			int valueBegin = skipWhitespace(json, i + 1);
+			int valueEnd = skipValue(json, valueBegin);
+			if (valueEnd < 0 || members.put(key, new int[] { valueBegin, valueEnd }) != null) {
+				return null;
+			}
+			i = skipWhitespace(json, valueEnd);
+			if (isAt(json, i, ',')) {
+				i = skipWhitespace(json, i + 1);
+			} else if (isAt(json, i, '}')) {
+				return skipWhitespace(json, i + 1) == json.length() ? new JsonObjectIndex(json, members) : null;
+			} else {
+				return null;
+			}
+		}
+	}
+
+	boolean contains(String key) {
+		return members.containsKey(key);
+	}
+
+	boolean isEmpty() {
+		return members.isEmpty();
+	}
+
+	Set<String> keys() {
+		return members.keySet();
+	}
+
+	/**
+	 * Returns the json string of the value.
+	 *
+	 * @param key
+	 *            the key of the member
+	 * @return the value as json string or null, in case the key does not exist.
+	 */
+	@Nullable
+	String getRawValue(String key) {
+		int[] value = members.get(key);
+		return value != null ? json.substring(value[0], value[1]) : null;
+	}
+
+	/**
+	 * Parses the value of the member.
+	 *
+	 * @param key
+	 *            the key of the member
+	 * @return the value as {@link String}, {@link Number}, {@link Boolean},
+	 *         {@link org.json.JSONObject}, {@link org.json.JSONArray} or
+	 *         {@link org.json.JSONObject#NULL}, null in case the key does not
+	 *         exist.
+	 * @throws JsonParsingException
+	 *             in case the value is not valid json.
+	 */
+	@Nullable
+	Object parseValue(String key) {
+		int[] value = members.get(key);
+		if (value == null) {
+			return null;
+		}
+		int begin = value[0];
+		int end = value[1];
+		if (json.charAt(begin) == '"' && !hasEscapes(json, begin, end)) {
+			return json.substring(begin + 1, end - 1);
+		}
+		try {
+			return new JSONTokener(json.substring(begin, end)).nextValue();
+		} catch (JSONException e) {
+			throw new JsonParsingException(e.getMessage());
+		}
+	}
+
+	private static boolean isAt(String json, int index, char character) {
+		return index < json.length() && json.charAt(index) == character;
+	}
+
+	private static boolean hasEscapes(String json, int begin, int end) {
+		for (int i = begin; i < end; i++) {
+			if (json.charAt(i) == '\\') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int skipWhitespace(String json, int index) {
+		while (index < json.length() && Character.isWhitespace(json.charAt(index))) {
+			index++;
+		}
+		return index;
+	}
+
+	private static int skipString(String json, int index) {
+		for (int i = index + 1; i < json.length(); i++) {
+			char character = json.charAt(i);
+			if (character < ' ') {
+				return -1;
+			}
+			if (character == '\\') {
+				i = skipEscape(json, i + 1);
+				if (i < 0) {
+					return -1;
+				}
+			} else if (character == '"') {
+				return i + 1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the index of the last character of the escape sequence, -1 in case
+	 *         it is invalid.
+	 */
+	private static int skipEscape(String json, int index) {
+		if (index >= json.length()) {
+			return -1;
+		}
+		if (json.charAt(index) != 'u') {
+			return "\"\\/bfnrt'".indexOf(json.charAt(index)) >= 0 ? index : -1;
+		}
+		if (index + 4 >= json.length()) {
+			return -1;
+		}
+		for (int i = index + 1; i <= index + 4; i++) {
+			if (Character.digit(json.charAt(i), 16) < 0) {
+				return -1;
+			}
+		}
+		return index + 4;
+	}
+
+	/**
+	 * @return the index after the value, -1 in case it is no strict json value.
+	 */
+	private static int skipValue(String json, int index) {
+		if (index >= json.length()) {
+			return -1;
+		}
+		switch (json.charAt(index)) {
+		case '"':
+			return skipString(json, index);
+		case '{':
+			return skipObject(json, index);
+		case '[':
+			return skipArray(json, index);
+		default:
+			return skipLiteral(json, index);
+		}
+	}
+
+	private static int skipObject(String json, int index) {
+		int i = skipWhitespace(json, index + 1);
+		if (isAt(json, i, '}')) {
+			return i + 1;
+		}
+		while (isAt(json, i, '"')) {
+			i = skipString(json, i);
+			if (i < 0) {
+				return -1;
+			}
+			i = skipWhitespace(json, i);
+			if (!isAt(json, i, ':')) {
+				return -1;
+			}
+			i = skipValue(json, skipWhitespace(json, i + 1));
+			if (i < 0) {
+				return -1;
+			}
+			i = skipWhitespace(json, i);
+			if (isAt(json, i, '}')) {
+				return i + 1;
+			}
+			if (!isAt(json, i, ',')) {
+				return -1;
+			}
+			i = skipWhitespace(json, i + 1);
+		}
+		return -1;
+	}
+
+	private static int skipArray(String json, int index) {
+		int i = skipWhitespace(json, index + 1);
+		if (isAt(json, i, ']')) {
+			return i + 1;
+		}
+		while (true) {
+			i = skipValue(json, i);
+			if (i < 0) {
+				return -1;
+			}
+			i = skipWhitespace(json, i);
+			if (isAt(json, i, ']')) {
+				return i + 1;
+			}
+			if (!isAt(json, i, ',')) {
+				return -1;
+			}
+			i = skipWhitespace(json, i + 1);
+		}
+	}
+
+	private static int skipLiteral(String json, int index) {
+		for (String literal : LITERALS) {
+			if (json.startsWith(literal, index)) {
+				return index + literal.length();
+			}
+		}
+		int i = index;
+		if (isAt(json, i, '-')) {
+			i++;
+		}
+		int integerEnd = skipDigits(json, i);
+		if (integerEnd == i || (json.charAt(i) == '0' && integerEnd > i + 1)) {
+			return -1;
+		}
+		i = integerEnd;
+		if (isAt(json, i, '.')) {
+			int fractionEnd = skipDigits(json, i + 1);
+			if (fractionEnd == i + 1) {
+				return -1;
+			}
+			i = fractionEnd;
+		}
+		if (isAt(json, i, 'e') || isAt(json, i, 'E')) {
+			i++;
+			if (isAt(json, i, '+') || isAt(json, i, '-')) {
+				i++;
+			}
+			int exponentEnd = skipDigits(json, i);
+			if (exponentEnd == i) {
+				return -1;
+			}
+			i = exponentEnd;
+		}
+		return i;
+	}
+
+	private static int skipDigits(String json, int index) {
+		int i = index;
+		while (i < json.length() && json.charAt(i) >= '0' && json.charAt(i) <= '9') {
+			i++;
+		}
+		return i;
+	}
+}
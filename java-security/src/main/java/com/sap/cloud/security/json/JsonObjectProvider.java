@@ -0,0 +1,43 @@
+package com.sap.cloud.security.json;
+
+/**
+ * Service provider interface of the json backend that is used by
+ * {@link DefaultJsonObject} to parse json strings, e.g. the header and the
+ * payload of a token. <br>
+ * Implementations are discovered with {@link java.util.ServiceLoader} and need
+ * to be registered in
+ * {@code META-INF/services/com.sap.cloud.security.json.JsonObjectProvider}.
+ * The provider with the highest {@link #getPriority()} is used, unless a
+ * provider is selected by name with the system property
+ * {@value DefaultJsonObject#JSON_PROVIDER_PROPERTY}.
+ */
+public interface JsonObjectProvider {
+
+	/**
+	 * The name of the provider, e.g. "jackson".
+	 *
+	 * @return the name.
+	 */
+	String getName();
+
+	/**
+	 * The priority of the provider. The default {@code org.json} provider has
+	 * priority 0.
+	 *
+	 * @return the priority.
+	 */
+	default int getPriority() {
+		return 0;
+	}
+
+	/**
+	 * Parses the json string.
+	 *
+	 * @param jsonString
+	 *            the content in json format that should be parsed.
+	 * @return the json object.
+	 * @throws JsonParsingException
+	 *             in case the json string is not a valid json object.
+	 */
+	JsonObject create(String jsonString);
+}
@@ -0,0 +1,75 @@
+package com.sap.cloud.security.json;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * Discovers the {@link JsonObjectProvider} implementations with the
+ * {@link ServiceLoader} and selects the one that is used by
+ * {@link DefaultJsonObject}.
+ */
+final class JsonObjectProviders {
+	private static final Logger LOGGER = LoggerFactory.getLogger(JsonObjectProviders.class);
+
+	private JsonObjectProviders() {
+		// use static methods
+	}
+
+	/**
+	 * Returns the provider selected with system property
+	 * {@value DefaultJsonObject#JSON_PROVIDER_PROPERTY} or the one with the
+	 * highest priority. The provider is determined once.
+	 *
+	 * @return the provider.
+	 */
+	static JsonObjectProvider getProvider() {
+		return Holder.PROVIDER;
+	}
+
+	static JsonObjectProvider select(@Nullable String name) {
+		List<JsonObjectProvider> providers = loadProviders();
+		if (name != null) {
+			for (JsonObjectProvider provider : providers) {
+				if (name.equals(provider.getName())) {
+					return provider;
+				}
+			}
+			LOGGER.warn("Json provider '{}' configured with {} is not available.", name,
+					DefaultJsonObject.JSON_PROVIDER_PROPERTY);
+		}
+		return providers.stream()
+				.max(Comparator.comparingInt(JsonObjectProvider::getPriority))
+				.orElseGet(OrgJsonObjectProvider::new);
+	}
+
+	private static List<JsonObjectProvider> loadProviders() {
+		List<JsonObjectProvider> providers = new ArrayList<>();
+		Iterator<JsonObjectProvider> iterator = ServiceLoader
+				.load(JsonObjectProvider.class, JsonObjectProviders.class.getClassLoader()).iterator();
+		while (iterator.hasNext()) {
+			try {
+				providers.add(iterator.next());
+			} catch (ServiceConfigurationError | LinkageError e) {
+				LOGGER.debug("Json provider is not available: {}", e.getMessage());
+			}
+		}
+		return providers;
+	}
+
+	private static class Holder {
+		static final JsonObjectProvider PROVIDER = select(
+				System.getProperty(DefaultJsonObject.JSON_PROVIDER_PROPERTY));
+
+		static {
+			LOGGER.debug("Json provider '{}' is used.", PROVIDER.getName());
+		}
+	}
+}
@@ -0,0 +1,219 @@
+package com.sap.cloud.security.json;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Default {@link JsonObject} implementation based on {@code org.json}. <br>
+ * The Json String is parsed on demand: only the top-level keys are indexed when
+ * the instance is created, the value of a key is parsed as soon as it is
+ * accessed for the first time. Values that are never accessed, e.g. large
+ * nested objects, are never parsed.
+ */
+final class OrgJsonObject implements JsonObject {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(OrgJsonObject.class);
+
+	@Nullable
+	private final String jsonString;
+	@Nullable
+	private final JsonObjectIndex index;
+	private final Map<String, Object> values = new ConcurrentHashMap<>();
+	private volatile JSONObject jsonObject;
+
+	OrgJsonObject(String jsonString) {
+		this.jsonString = jsonString;
+		this.index = jsonString != null ? JsonObjectIndex.scan(jsonString) : null;
+		if (index == null) {
+			this.jsonObject = createJsonObject(jsonString);
+		}
+	}
+
+	/**
+	 * Creates a view on an already parsed (nested) json object, without copying
+	 * it.
+	 *
+	 * @param jsonObject
+	 *            the parsed json object
+	 */
+	private OrgJsonObject(JSONObject jsonObject) {
+		this.jsonString = null;
+		this.index = null;
+		this.jsonObject = jsonObject;
+	}
+
+	@Override
+	public boolean contains(String key) {
+		return index != null ? index.contains(key) : getJsonObject().has(key);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return index != null ? index.isEmpty() : getJsonObject().isEmpty();
+	}
+
+	@Override
+	public <T> List<T> getAsList(String name, Class<T> type) {
+		return getJSONArray(name).map(jsonArray -> castToListOfType(jsonArray, type)).orElse(Collections.emptyList());
+	}
+
+	@Override
+	@Nullable
+	public String getAsString(String name) {
+		if (contains(name)) {
+			Object value = getValue(name);
+			if (value instanceof String) {
+				return (String) value;
+			}
+			throw new JsonParsingException(wrongTypeMessage(name, "a string"));
+		}
+		return null;
+	}
+
+	@Override
+	@Nullable
+	public Instant getAsInstant(String name) {
+		if (contains(name)) {
+			return getLong(name)
+					.map(this::convertToInstant)
+					.orElse(null);
+		}
+		return null;
+	}
+
+	@Override
+	@Nullable
+	public JsonObject getJsonObject(String name) {
+		if (contains(name)) {
+			Object value = getValue(name);
+			if (!(value instanceof JSONObject)) {
+				throw new JsonParsingException(wrongTypeMessage(name, "a JSONObject"));
+			}
+			return new OrgJsonObject((JSONObject) value);
+		}
+		return null;
+	}
+
+	@Override
+	public List<JsonObject> getJsonObjects(String name) {
+		return getJSONArray(name)
+				.map(this::convertToJsonObjects)
+				.orElse(new ArrayList<>());
+	}
+
+	@Override
+	public Map<String, String> getKeyValueMap() {
+		Map<String, String> map = new HashMap<>();
+		for (String key : index != null ? index.keys() : getJsonObject().keySet()) {
+			Object value = getValue(key);
+			if (value instanceof String) {
+				map.put(key, String.valueOf(value));
+			}
+		}
+		return map;
+	}
+
+	@Override
+	public String asJsonString() {
+		return getJsonObject().toString();
+	}
+
+	private List<JsonObject> convertToJsonObjects(JSONArray jsonArray) {
+		List<JsonObject> jsonObjects = new ArrayList<>();
+		jsonArray.forEach(jsonArrayObject -> {
+			if (jsonArrayObject instanceof JSONObject) {
+				jsonObjects.add(new OrgJsonObject((JSONObject) jsonArrayObject));
+			} else {
+				throw new JsonParsingException("Array does not only contain json objects!");
+			}
+		});
+		return jsonObjects;
+	}
+
+	private Optional<Long> getLong(String name) {
+		Object value = getValue(name);
+		if (value instanceof Number) {
+			return Optional.of(((Number) value).longValue());
+		}
+		if (value instanceof String) {
+			try {
+				return Optional.of(new BigDecimal((String) value).longValue());
+			} catch (NumberFormatException e) {
+				// fall through
+			}
+		}
+		throw new JsonParsingException(wrongTypeMessage(name, "a number"));
+	}
+
+	private Instant convertToInstant(long epochSeconds) {
+		try {
+			return Instant.ofEpochSecond(epochSeconds);
+		} catch (DateTimeException | NumberFormatException e) {
+			throw new JsonParsingException(e.getMessage());
+		}
+	}
+
+	private <T> List<T> castToListOfType(JSONArray jsonArray, Class<T> type) {
+		List<T> valuesAsList = new ArrayList<>(jsonArray.length());
+		for (int i = 0; i < jsonArray.length(); i++) {
+			Object value = jsonArray.get(i);
+			try {
+				valuesAsList.add(type.cast(value));
+			} catch (ClassCastException e) {
+				throw new JsonParsingException(e.getMessage());
+			}
+		}
+		return valuesAsList;
+	}
+
+	private Optional<JSONArray> getJSONArray(String name) {
+		if (contains(name)) {
+			Object value = getValue(name);
+			if (value instanceof JSONArray) {
+				return Optional.of((JSONArray) value);
+			}
+			throw new JsonParsingException(wrongTypeMessage(name, "a JSONArray"));
+		}
+		return Optional.empty();
+	}
+
+	@Nullable
+	private Object getValue(String name) {
+		if (index == null) {
+			return getJsonObject().opt(name);
+		}
+		return values.computeIfAbsent(name, index::parseValue);
+	}
+
+	private static String wrongTypeMessage(String name, String type) {
+		return "JSONObject[" + JSONObject.quote(name) + "] is not " + type + ".";
+	}
+
+	private JSONObject getJsonObject() {
+		if (jsonObject == null) {
+			jsonObject = createJsonObject(jsonString);
+		}
+		return jsonObject;
+	}
+
+	private JSONObject createJsonObject(String jsonString) {
+		try {
+			JSONObject createdJsonObject = new JSONObject(jsonString);
+			return createdJsonObject;
+		} catch (JSONException e) {
+			LOGGER.error("Given json string '{}' is not valid, error message: {}", jsonString, e.getMessage());
+			throw new JsonParsingException(e.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,18 @@
+package com.sap.cloud.security.json;
+
+/**
+ * Default json backend based on {@code org.json}.
+ */
+public class OrgJsonObjectProvider implements JsonObjectProvider {
+	static final String NAME = "org.json";
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public JsonObject create(String jsonString) {
+		return new OrgJsonObject(jsonString);
+	}
+}
@@ -3,10 +3,13 @@ package com.sap.cloud.security.servlet;
 import com.sap.cloud.security.config.OAuth2ServiceConfiguration;
 import com.sap.cloud.security.token.SecurityContext;
 import com.sap.cloud.security.token.Token;
+import com.sap.cloud.security.token.validation.ValidationErrorCode;
 import com.sap.cloud.security.token.validation.ValidationListener;
 import com.sap.cloud.security.token.validation.ValidationResult;
+import com.sap.cloud.security.token.validation.ValidationResults;
 import com.sap.cloud.security.token.validation.Validator;
 import com.sap.cloud.security.token.validation.validators.JwtValidatorBuilder;
+import com.sap.cloud.security.token.validation.validators.RejectedTokenCache;
 import com.sap.cloud.security.xsuaa.http.HttpHeaders;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.slf4j.Logger;
@@ -26,6 +29,7 @@ public abstract class AbstractTokenAuthenticator implements TokenAuthenticator {
 	private static final Logger logger = LoggerFactory.getLogger(AbstractTokenAuthenticator.class);
 	private final List<ValidationListener> validationListeners = new ArrayList<>();
 	private Validator<Token> tokenValidator;
+	private RejectedTokenCache rejectedTokenCache;
 	protected CloseableHttpClient httpClient;
 	protected OAuth2ServiceConfiguration serviceConfiguration;
 
@@ -35,14 +39,33 @@ public abstract class AbstractTokenAuthenticator implements TokenAuthenticator {
 			HttpServletRequest httpRequest = (HttpServletRequest) request;
 			String authorizationHeader = httpRequest.getHeader(HttpHeaders.AUTHORIZATION);
 			if (headerIsAvailable(authorizationHeader)) {
+				ValidationResult rejectedResult = getRejectedResult(authorizationHeader);
+				if (rejectedResult != null) {
+					logger.debug("Request could not be authenticated: token was rejected recently.");
+					return TokenAuthenticatorResult.createUnauthenticated(
+							"Error during token validation: " + rejectedResult.getErrorDescription());
+				}
 				try {
-					Token token = extractFromHeader(authorizationHeader);
-					ValidationResult result = getOrCreateTokenValidator().validate(token);
+					Validator<Token> validator = getOrCreateTokenValidator();
+					Token token;
+					try {
+						token = extractFromHeader(authorizationHeader);
+					} catch (RuntimeException e) {
+						ValidationResult result = ValidationResults.createInvalid(
+								ValidationErrorCode.MALFORMED_TOKEN, "Token can not be decoded: {}", e.getMessage());
+						rememberRejected(authorizationHeader, result);
+						return TokenAuthenticatorResult.createUnauthenticated(
+								"Error during token validation: " + result.getErrorDescription());
+					}
+					ValidationResult result = validator.validate(token);
 					if (result.isValid()) {
 						SecurityContext.setToken(token);
 						return authenticated(token);
 					} else {
-						return unauthenticated("Error during token validation: " + result.getErrorDescription());
+						rememberRejected(authorizationHeader, result);
+						// the failure is logged aggregated by the ValidationFailureLogger
+						return TokenAuthenticatorResult.createUnauthenticated(
+								"Error during token validation: " + result.getErrorDescription());
 					}
 				} catch (Exception e) {
 					return unauthenticated("Unexpected error occurred: " + e.getMessage());
@@ -77,6 +100,20 @@ public abstract class AbstractTokenAuthenticator implements TokenAuthenticator {
 		return this;
 	}
 
+	/**
+	 * Enables caching of recently rejected tokens. A token that is presented again
+	 * within the cache time is rejected without being decoded and validated again.
+	 * Disabled by default.
+	 *
+	 * @param rejectedTokenCache
+	 *            the cache, e.g. {@code RejectedTokenCache.getInstance()}
+	 * @return the authenticator instance
+	 */
+	public AbstractTokenAuthenticator withRejectedTokenCache(@Nullable RejectedTokenCache rejectedTokenCache) {
+		this.rejectedTokenCache = rejectedTokenCache;
+		return this;
+	}
+
 	/**
 	 * Return configured service configuration or Environments.getCurrent() if not
 	 * configured.
@@ -116,6 +153,17 @@ public abstract class AbstractTokenAuthenticator implements TokenAuthenticator {
 		return tokenValidator;
 	}
 
+	@Nullable
+	private ValidationResult getRejectedResult(String authorizationHeader) {
+		return rejectedTokenCache != null ? rejectedTokenCache.getIfPresent(authorizationHeader) : null;
+	}
+
+	private void rememberRejected(String authorizationHeader, ValidationResult result) {
+		if (rejectedTokenCache != null) {
+			rejectedTokenCache.put(authorizationHeader, result);
+		}
+	}
+
 	private TokenAuthenticationResult unauthenticated(String message) {
 		logger.warn("Request could not be authenticated: {}.", message);
 		return TokenAuthenticatorResult.createUnauthenticated(message);
@@ -40,7 +40,7 @@ public class XsuaaTokenAuthenticator extends AbstractTokenAuthenticator {
 	}
 
 	private ScopeConverter getScopeConverter() {
-		return new XsuaaScopeConverter(
+		return XsuaaScopeConverter.getInstance(
 				getServiceConfiguration().getProperty(CFConstants.XSUAA.APP_ID));
 	}
 
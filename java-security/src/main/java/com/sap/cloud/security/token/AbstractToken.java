@@ -5,13 +5,13 @@ import com.sap.cloud.security.json.JsonObject;
 import com.sap.cloud.security.xsuaa.Assertions;
 import com.sap.cloud.security.xsuaa.jwt.Base64JwtDecoder;
 import com.sap.cloud.security.xsuaa.jwt.DecodedJwt;
+import com.sap.cloud.security.xsuaa.jwt.JwtSegments;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.security.Principal;
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
@@ -30,9 +30,16 @@ public abstract class AbstractToken implements Token {
 	protected final DefaultJsonObject tokenHeader;
 	protected final DefaultJsonObject tokenBody;
 	protected final String jwtToken;
+	private final Memoized<Instant> expiration = new Memoized<>(() -> getClaimAsInstant(EXPIRATION));
+	private final Memoized<Instant> notBefore = new Memoized<>(
+			() -> hasClaim(NOT_BEFORE) ? getClaimAsInstant(NOT_BEFORE) : getClaimAsInstant(ISSUED_AT));
+	private final Memoized<Set<String>> audiences = new Memoized<>(
+			() -> Collections.unmodifiableSet(new LinkedHashSet<>(getClaimAsStringList(TokenClaims.AUDIENCE))));
+	private volatile JwtSegments segments; // access via getter
 
 	public AbstractToken(@Nonnull DecodedJwt decodedJwt) {
 		this(decodedJwt.getHeader(), decodedJwt.getPayload(), decodedJwt.getEncodedToken());
+		this.segments = decodedJwt.getSegments();
 	}
 
 	/**
@@ -87,24 +94,27 @@ public abstract class AbstractToken implements Token {
 		return tokenBody.getJsonObject(claimName);
 	}
 
+	@Nullable
+	private Instant getClaimAsInstant(String claimName) {
+		return tokenBody.getAsInstant(claimName);
+	}
+
 	@Nullable
 	@Override
 	public Instant getExpiration() {
-		return tokenBody.getAsInstant(EXPIRATION);
+		return expiration.get();
 	}
 
 	@Override
 	public boolean isExpired() {
-		return getExpiration() == null ? true
-				: getExpiration().isBefore(LocalDateTime.now().toInstant(ZoneOffset.UTC));
+		Instant expiresAt = getExpiration();
+		return expiresAt == null ? true : expiresAt.isBefore(Instant.now());
 	}
 
 	@Nullable
 	@Override
 	public Instant getNotBefore() {
-		return tokenBody.contains(NOT_BEFORE)
-				? tokenBody.getAsInstant(NOT_BEFORE)
-				: tokenBody.getAsInstant(ISSUED_AT);
+		return notBefore.get();
 	}
 
 	@Override
@@ -112,11 +122,24 @@ public abstract class AbstractToken implements Token {
 		return jwtToken;
 	}
 
+	/**
+	 * Returns the segments of the encoded token, which were located when the
+	 * token was decoded, e.g. to verify its signature.
+	 *
+	 * @return the segments of the token.
+	 * @throws IllegalArgumentException
+	 *             in case the token does not consist of three segments.
+	 */
+	public JwtSegments getSegments() {
+		if (segments == null) {
+			segments = JwtSegments.of(jwtToken); // immutable, computing it twice is harmless
+		}
+		return segments;
+	}
+
 	@Override
 	public Set<String> getAudiences() {
-		Set<String> audiences = new LinkedHashSet<>();
-		audiences.addAll(getClaimAsStringList(TokenClaims.AUDIENCE));
-		return audiences;
+		return new LinkedHashSet<>(audiences.get()); // callers own the returned set
 	}
 
 	protected Principal createPrincipalByName(String name) {
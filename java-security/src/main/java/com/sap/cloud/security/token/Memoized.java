@@ -0,0 +1,35 @@
+package com.sap.cloud.security.token;
+
+import javax.annotation.Nullable;
+import java.util.function.Supplier;
+
+/**
+ * Computes a value once on first access and returns the same (possibly null)
+ * value afterwards. Used by the tokens to parse their claims only once.
+ *
+ * @param <T>
+ *            the type of the value
+ */
+final class Memoized<T> implements Supplier<T> {
+	private final Supplier<T> supplier;
+	private volatile boolean computed;
+	private T value;
+
+	Memoized(Supplier<T> supplier) {
+		this.supplier = supplier;
+	}
+
+	@Override
+	@Nullable
+	public T get() {
+		if (!computed) {
+			synchronized (this) {
+				if (!computed) {
+					value = supplier.get();
+					computed = true;
+				}
+			}
+		}
+		return value;
+	}
+}
@@ -7,6 +7,7 @@ import com.sap.cloud.security.xsuaa.jwt.DecodedJwt;
 import javax.annotation.Nonnull;
 
 import java.security.Principal;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -16,6 +17,10 @@ import static com.sap.cloud.security.token.TokenClaims.SAP_GLOBAL_USER_ID;
  * You can get further token claims from here: {@link TokenClaims}.
  */
 public class SapIdToken extends AbstractToken {
+	private final Memoized<Principal> principal = new Memoized<>(
+			() -> createPrincipalByName(getClaimAsString(SAP_GLOBAL_USER_ID)));
+	private final Memoized<Set<String>> audiences = new Memoized<>(this::createAudiences);
+
 	public SapIdToken(@Nonnull DecodedJwt decodedJwt) {
 		super(decodedJwt);
 	}
@@ -26,7 +31,7 @@ public class SapIdToken extends AbstractToken {
 
 	@Override
 	public Principal getPrincipal() {
-		return createPrincipalByName(getClaimAsString(SAP_GLOBAL_USER_ID));
+		return principal.get();
 	}
 
 	@Override
@@ -36,12 +41,16 @@ public class SapIdToken extends AbstractToken {
 
 	@Override
 	public Set<String> getAudiences() {
+		return new LinkedHashSet<>(audiences.get()); // callers own the returned set
+	}
+
+	private Set<String> createAudiences() {
 		try {
 			return super.getAudiences();
 		} catch (JsonParsingException e) {
 			final Set<String> audiences = new LinkedHashSet<>();
 			audiences.add(getClaimAsString(TokenClaims.AUDIENCE));
-			return audiences;
+			return Collections.unmodifiableSet(audiences);
 		}
 	}
 }
@@ -0,0 +1,66 @@
+package com.sap.cloud.security.token;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * A set of scopes to be checked, created with
+ * {@link ScopeRegistry#mask(String...)}. The registered scopes are kept as
+ * bits, all other scopes by name.
+ */
+public final class ScopeMask {
+	private final ScopeRegistry registry;
+	private final long[] bits;
+	private final Set<String> unknownScopes;
+
+	ScopeMask(ScopeRegistry registry, long[] bits, Set<String> unknownScopes) {
+		this.registry = registry;
+		this.bits = bits;
+		this.unknownScopes = Collections.unmodifiableSet(unknownScopes);
+	}
+
+	ScopeRegistry getRegistry() {
+		return registry;
+	}
+
+	/**
+	 * Checks whether all scopes of the mask are granted.
+	 *
+	 * @param grantedBits
+	 *            the granted scopes encoded by the registry
+	 * @param grantedScopes
+	 *            the granted scopes, to check the unknown scopes
+	 * @return true in case all scopes are granted.
+	 */
+	boolean isContainedIn(long[] grantedBits, Set<String> grantedScopes) {
+		for (int i = 0; i < bits.length; i++) {
+			if ((bits[i] & ~grantedBits[i]) != 0) {
+				return false;
+			}
+		}
+		return unknownScopes.isEmpty() || grantedScopes.containsAll(unknownScopes);
+	}
+
+	/**
+	 * Checks whether any scope of the mask is granted.
+	 *
+	 * @param grantedBits
+	 *            the granted scopes encoded by the registry
+	 * @param grantedScopes
+	 *            the granted scopes, to check the unknown scopes
+	 * @return true in case at least one scope is granted.
+	 */
+	boolean intersects(long[] grantedBits, Set<String> grantedScopes) {
+		for (int i = 0; i < bits.length; i++) {
+			if ((bits[i] & grantedBits[i]) != 0) {
+				return true;
+			}
+		}
+		for (String scope : unknownScopes) {
+			if (grantedScopes.contains(scope)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
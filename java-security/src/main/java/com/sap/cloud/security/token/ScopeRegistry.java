@@ -0,0 +1,136 @@
+package com.sap.cloud.security.token;
+
+import com.sap.cloud.security.xsuaa.Assertions;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Assigns a dense integer id to each scope an application knows, e.g. the
+ * scopes declared in its {@code xs-security.json}. With that the scopes that
+ * are granted by a token can be represented as bits and authorization checks
+ * with {@link XsuaaToken#hasAllScopes(ScopeMask)} and
+ * {@link XsuaaToken#hasAnyScope(ScopeMask)} become word-wise bit operations.
+ * <br>
+ * The scopes are registered in the form the token provides them in its
+ * {@code scope} claim, e.g. "myapp!t123.Read". The registry is immutable and
+ * should be created once and shared.
+ *
+ * <pre>
+ * {@code
+ * ScopeRegistry registry = ScopeRegistry.of(appId + ".Read", appId + ".Write");
+ * ScopeMask readWrite = registry.mask(appId + ".Read", appId + ".Write");
+ * boolean isAuthorized = token.hasAllScopes(readWrite);
+ * }
+ * </pre>
+ */
+public final class ScopeRegistry {
+	private final Map<String, Integer> ids;
+
+	private ScopeRegistry(Map<String, Integer> ids) {
+		this.ids = ids;
+	}
+
+	/**
+	 * Creates a registry for the given scopes. The ids are assigned in the given
+	 * order.
+	 *
+	 * @param scopes
+	 *            the known scopes, e.g. "myapp!t123.Read"
+	 * @return the registry
+	 */
+	public static ScopeRegistry of(String... scopes) {
+		Assertions.assertNotNull(scopes, "scopes must not be null.");
+		return of(Arrays.asList(scopes));
+	}
+
+	/**
+	 * Creates a registry for the given scopes. The ids are assigned in the
+	 * iteration order.
+	 *
+	 * @param scopes
+	 *            the known scopes, e.g. "myapp!t123.Read"
+	 * @return the registry
+	 */
+	public static ScopeRegistry of(Collection<String> scopes) {
+		Assertions.assertNotNull(scopes, "scopes must not be null.");
+		Map<String, Integer> ids = new HashMap<>();
+		for (String scope : scopes) {
+			Assertions.assertHasText(scope, "scope must not be null or empty.");
+			ids.putIfAbsent(scope, ids.size());
+		}
+		return new ScopeRegistry(ids);
+	}
+
+	/**
+	 * Returns the id of the scope.
+	 *
+	 * @param scope
+	 *            the scope
+	 * @return the id or -1 in case the scope is not registered.
+	 */
+	public int getId(String scope) {
+		return ids.getOrDefault(scope, -1);
+	}
+
+	/**
+	 * Returns the number of registered scopes.
+	 *
+	 * @return the number of scopes.
+	 */
+	public int size() {
+		return ids.size();
+	}
+
+	/**
+	 * Creates a mask for authorization checks with
+	 * {@link XsuaaToken#hasAllScopes(ScopeMask)} and
+	 * {@link XsuaaToken#hasAnyScope(ScopeMask)}. Scopes that are not registered
+	 * are checked by name.
+	 *
+	 * @param scopes
+	 *            the scopes to be checked
+	 * @return the mask
+	 */
+	public ScopeMask mask(String... scopes) {
+		Assertions.assertNotNull(scopes, "scopes must not be null.");
+		long[] bits = new long[words()];
+		Set<String> unknownScopes = new LinkedHashSet<>();
+		for (String scope : scopes) {
+			int id = getId(scope);
+			if (id < 0) {
+				unknownScopes.add(scope);
+			} else {
+				bits[id >>> 6] |= 1L << id;
+			}
+		}
+		return new ScopeMask(this, bits, unknownScopes);
+	}
+
+	/**
+	 * Encodes the registered scopes of the collection as bits, scopes that are
+	 * not registered are ignored.
+	 *
+	 * @param scopes
+	 *            the scopes, e.g. granted by a token
+	 * @return the bits, bit {@code id} is set in word {@code id / 64}.
+	 */
+	long[] encode(Collection<String> scopes) {
+		long[] bits = new long[words()];
+		for (String scope : scopes) {
+			int id = getId(scope);
+			if (id >= 0) {
+				bits[id >>> 6] |= 1L << id;
+			}
+		}
+		return bits;
+	}
+
+	private int words() {
+		return (ids.size() + 63) >>> 6;
+	}
+}
@@ -4,16 +4,17 @@ import com.sap.cloud.security.xsuaa.Assertions;
 
 import java.util.Collection;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This utility class translates XSUAA scopes that are specified in global form
  * and prefixed with the "appId.", to local ones.
  */
 public class XsuaaScopeConverter implements ScopeConverter {
-	private final Pattern globalScopePattern;
+	private static final Map<String, XsuaaScopeConverter> instances = new ConcurrentHashMap<>();
+	private final String globalScopePrefix;
 
 	/**
 	 * Creates an instance of the converter.
@@ -23,7 +24,20 @@ public class XsuaaScopeConverter implements ScopeConverter {
 	 */
 	public XsuaaScopeConverter(String appId) {
 		Assertions.assertHasText(appId, "appId must not be null or empty.");
-		this.globalScopePattern = Pattern.compile(appId + "\\.(.+)");
+		this.globalScopePrefix = appId + ".";
+	}
+
+	/**
+	 * Returns the converter of the given application. The converter is created
+	 * once per appId and shared.
+	 *
+	 * @param appId
+	 *            the xs application name e.g. myapp!t123.
+	 * @return the converter.
+	 */
+	public static XsuaaScopeConverter getInstance(String appId) {
+		Assertions.assertHasText(appId, "appId must not be null or empty.");
+		return instances.computeIfAbsent(appId, XsuaaScopeConverter::new);
 	}
 
 	@Override
@@ -39,9 +53,8 @@ public class XsuaaScopeConverter implements ScopeConverter {
 	}
 
 	private String convertToLocalScope(String scope) {
-		Matcher matcher = globalScopePattern.matcher(scope);
-		if (matcher.matches()) {
-			return matcher.group(matcher.groupCount());
+		if (scope.length() > globalScopePrefix.length() && scope.startsWith(globalScopePrefix)) {
+			return scope.substring(globalScopePrefix.length());
 		}
 		return null;
 	}
@@ -9,6 +9,8 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.security.Principal;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -24,6 +26,12 @@ public class XsuaaToken extends AbstractToken implements AccessToken {
 	static final String UNIQUE_CLIENT_NAME_FORMAT = "client/%s"; // client/<clientid>
 	private static final Logger LOGGER = LoggerFactory.getLogger(XsuaaToken.class);
 	private ScopeConverter scopeConverter;
+	private volatile Memoized<Set<String>> localScopes;
+	private volatile GrantedScopeBits grantedScopeBits;
+	private final Memoized<Set<String>> scopes = new Memoized<>(() -> Collections
+			.unmodifiableSet(new LinkedHashSet<>(getClaimAsStringList(TokenClaims.XSUAA.SCOPES))));
+	private final Memoized<GrantType> grantType = new Memoized<>(() -> GrantType.from(getClaimAsString(GRANT_TYPE)));
+	private final Memoized<Principal> principal = new Memoized<>(this::createPrincipal);
 
 	/**
 	 * Creates an instance.
@@ -89,18 +97,21 @@ public class XsuaaToken extends AbstractToken implements AccessToken {
 	 */
 	public XsuaaToken withScopeConverter(@Nullable ScopeConverter converter) {
 		this.scopeConverter = converter;
+		this.localScopes = converter != null ? new Memoized<>(() -> converter.convert(getScopes())) : null;
 		return this;
 	}
 
 	@Override
 	public Set<String> getScopes() {
-		LinkedHashSet<String> scopes = new LinkedHashSet<>();
-		scopes.addAll(getClaimAsStringList(TokenClaims.XSUAA.SCOPES));
-		return scopes;
+		return new LinkedHashSet<>(scopes.get()); // callers own the returned set
 	}
 
 	@Override
 	public Principal getPrincipal() {
+		return principal.get();
+	}
+
+	private Principal createPrincipal() {
 		String principalName;
 		switch (getGrantType()) {
 		case CLIENT_CREDENTIALS:
@@ -121,13 +132,14 @@ public class XsuaaToken extends AbstractToken implements AccessToken {
 
 	@Override
 	public boolean hasScope(String scope) {
-		return getScopes().contains(scope);
+		return scopes.get().contains(scope);
 	}
 
 	/**
 	 * Check if a local scope is available in the authentication token. <br>
 	 * Requires a {@link ScopeConverter} to be configured with
-	 * {@link #withScopeConverter(ScopeConverter)}.
+	 * {@link #withScopeConverter(ScopeConverter)}. The scopes are converted only
+	 * once per token and converter.
 	 *
 	 * @param scope
 	 *            name of local scope (without the appId)
@@ -137,12 +149,67 @@ public class XsuaaToken extends AbstractToken implements AccessToken {
 	public boolean hasLocalScope(@Nonnull String scope) {
 		Assertions.assertNotNull(scopeConverter,
 				"hasLocalScope() method requires a scopeConverter, which must not be null");
-		return scopeConverter.convert(getScopes()).contains(scope);
+		return localScopes.get().contains(scope);
+	}
+
+	/**
+	 * Returns the ids of the granted scopes that are known by the registry.
+	 *
+	 * @param registry
+	 *            the scope registry
+	 * @return the ids of the granted scopes.
+	 */
+	public BitSet getScopeIds(@Nonnull ScopeRegistry registry) {
+		Assertions.assertNotNull(registry, "registry must not be null.");
+		return BitSet.valueOf(getGrantedScopeBits(registry));
+	}
+
+	/**
+	 * Checks if all scopes of the mask are granted by the token.
+	 *
+	 * @param mask
+	 *            the scopes, created with {@link ScopeRegistry#mask(String...)}
+	 * @return true if all scopes are available
+	 */
+	public boolean hasAllScopes(@Nonnull ScopeMask mask) {
+		Assertions.assertNotNull(mask, "mask must not be null.");
+		return mask.isContainedIn(getGrantedScopeBits(mask.getRegistry()), scopes.get());
+	}
+
+	/**
+	 * Checks if any scope of the mask is granted by the token.
+	 *
+	 * @param mask
+	 *            the scopes, created with {@link ScopeRegistry#mask(String...)}
+	 * @return true if at least one scope is available
+	 */
+	public boolean hasAnyScope(@Nonnull ScopeMask mask) {
+		Assertions.assertNotNull(mask, "mask must not be null.");
+		return mask.intersects(getGrantedScopeBits(mask.getRegistry()), scopes.get());
+	}
+
+	private long[] getGrantedScopeBits(ScopeRegistry registry) {
+		GrantedScopeBits granted = grantedScopeBits;
+		if (granted == null || granted.registry != registry) {
+			granted = new GrantedScopeBits(registry, registry.encode(scopes.get()));
+			grantedScopeBits = granted;
+		}
+		return granted.bits;
 	}
 
 	@Override
 	public GrantType getGrantType() {
-		return GrantType.from(getClaimAsString(GRANT_TYPE));
+		return grantType.get();
+	}
+
+	private static class GrantedScopeBits {
+		final ScopeRegistry registry;
+		final long[] bits;
+
+		GrantedScopeBits(ScopeRegistry registry, long[] bits) {
+			this.registry = registry;
+			this.bits = bits;
+		}
 	}
 
 }
@@ -0,0 +1,24 @@
+package com.sap.cloud.security.token.validation;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Generic validator interface over type {@link T} that does not block the
+ * calling thread while data is requested from a remote service, e.g. the json
+ * web keys of the identity service.
+ *
+ * @param <T>
+ *            the type of the object to be validated.
+ */
+public interface AsyncValidator<T> {
+
+	/**
+	 * Validates the given object.
+	 *
+	 * @param t
+	 *            the object of type {@link T} to be validated.
+	 * @return the validation result as {@link ValidationResult}, which is already
+	 *         completed in case no remote service had to be requested.
+	 */
+	CompletableFuture<ValidationResult> validateAsync(T t);
+}
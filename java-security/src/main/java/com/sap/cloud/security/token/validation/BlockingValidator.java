@@ -0,0 +1,23 @@
+package com.sap.cloud.security.token.validation;
+
+/**
+ * A validator that may need to request data from a remote service, e.g. the
+ * json web keys of the identity service, in case they are not cached. The
+ * {@link CombiningValidator} runs such a validation on its executor in
+ * {@link CombiningValidator#validateAsync(Object)}.
+ *
+ * @param <T>
+ *            the type of the object to be validated.
+ */
+public interface BlockingValidator<T> extends Validator<T> {
+
+	/**
+	 * Checks whether the validation of the given object may block, because data
+	 * needs to be requested from a remote service.
+	 *
+	 * @param t
+	 *            the object of type {@link T} to be validated.
+	 * @return false in case the validation can be done with cached data.
+	 */
+	boolean mayBlock(T t);
+}
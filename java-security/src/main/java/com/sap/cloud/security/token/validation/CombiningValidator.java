@@ -2,49 +2,327 @@ package com.sap.cloud.security.token.validation;
 
 import com.sap.cloud.security.xsuaa.Assertions;
 
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 /**
  * This is a special validator that combines several validators into one. By
- * default the validation stops after one invalid result has been found.
+ * default the validation stops after one invalid result has been found. <br>
+ * With {@link #withStatistics()} the number of invocations, rejections and the
+ * time spent are recorded for each validator, see {@link #getStatistics()}. With
+ * {@link #withAdaptiveOrdering(Validator[])} cheap validators that reject often
+ * are run first. The result is only valid if all validators have returned a
+ * valid result. <br>
+ * With {@link #validateAsync(Object)} validations that may block (see
+ * {@link BlockingValidator}) are run on an executor.
  *
  * @param <T>
  *            the type to be validated.
  */
-public class CombiningValidator<T> implements Validator<T> {
+public class CombiningValidator<T> implements Validator<T>, AsyncValidator<T> {
+	static final int REORDER_INTERVAL = 1024;
+	static final int BATCH_CHUNK_SIZE = 64;
+	static final int DEFAULT_EXECUTOR_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+	static final int DEFAULT_EXECUTOR_QUEUE_SIZE = 1024;
 
 	private final List<Validator<T>> validators;
 	private final Set<ValidationListener> validationListeners = new HashSet<>();
+	private final ValidatorStatistics[] statistics;
+	private final AtomicLong validations = new AtomicLong();
+	private boolean[] isReorderable;
+	private volatile boolean isRecordingStatistics;
+	private volatile int[] order;
+	private volatile Executor executor; // access via getter
+	private Function<? super T, ?> batchKeyFunction;
 
 	public CombiningValidator(List<Validator<T>> validators) {
 		Assertions.assertNotNull(validators, "validators must not be null.");
 		this.validators = validators;
+		this.statistics = createStatistics(validators);
+		this.order = initialOrder();
 	}
 
 	public CombiningValidator(Validator<T>... validators) {
 		Assertions.assertNotNull(validators, "validators must not be null.");
 		this.validators = Arrays.asList(validators);
+		this.statistics = createStatistics(this.validators);
+		this.order = initialOrder();
+	}
+
+	private static <T> ValidatorStatistics[] createStatistics(List<Validator<T>> validators) {
+		ValidatorStatistics[] statistics = new ValidatorStatistics[validators.size()];
+		for (int i = 0; i < statistics.length; i++) {
+			statistics[i] = new ValidatorStatistics(validators.get(i).getClass().getName());
+		}
+		return statistics;
+	}
+
+	/**
+	 * Enables that the statistics of each validator are recorded, see
+	 * {@link #getStatistics()}. Otherwise, validations are not timed.
+	 *
+	 * @return this validator
+	 */
+	public CombiningValidator<T> withStatistics() {
+		this.isRecordingStatistics = true;
+		return this;
+	}
+
+	/**
+	 * Enables that the given validators are reordered according to the recorded
+	 * statistics: the lower the average duration per rejection, the earlier a
+	 * validator runs. Enables the statistics, see {@link #withStatistics()}. All other validators, e.g. the issuer and the signature
+	 * validator, keep their position relative to each other. Reorderable
+	 * validators must therefore not depend on another validator having run
+	 * before.
+	 *
+	 * @param reorderableValidators
+	 *            the validators of this combining validator that may be moved.
+	 * @return this validator
+	 */
+	@SafeVarargs
+	public final CombiningValidator<T> withAdaptiveOrdering(Validator<T>... reorderableValidators) {
+		Assertions.assertNotNull(reorderableValidators, "reorderableValidators must not be null.");
+		boolean[] reorderable = new boolean[validators.size()];
+		List<Validator<T>> candidates = Arrays.asList(reorderableValidators);
+		for (int i = 0; i < reorderable.length; i++) {
+			reorderable[i] = candidates.contains(validators.get(i));
+		}
+		this.isReorderable = reorderable;
+		this.order = initialOrder();
+		return withStatistics();
+	}
+
+	/**
+	 * Sets the executor that runs validations that may block in
+	 * {@link #validateAsync(Object)}, see {@link BlockingValidator}, and the
+	 * validations of {@link #validateAll(Collection)}. Defaults to a thread pool
+	 * of this validator with at most {@link #DEFAULT_EXECUTOR_THREADS} daemon
+	 * threads, which is created on first use and whose idle threads terminate.
+	 * At most {@link #DEFAULT_EXECUTOR_QUEUE_SIZE} validations are queued, further
+	 * validations are run by the calling thread, e.g. in case the identity service
+	 * responds slowly.
+	 *
+	 * @param executor
+	 *            the executor
+	 * @return this validator
+	 */
+	public CombiningValidator<T> withExecutor(Executor executor) {
+		Assertions.assertNotNull(executor, "executor must not be null.");
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Sets the function that groups the objects of {@link #validateAll(Collection)}
+	 * by the data they need from a remote service, e.g. tokens by their json web
+	 * key. The first object of a group is validated before the others, so that
+	 * the data is requested only once.
+	 *
+	 * @param batchKeyFunction
+	 *            returns the group of an object, or null in case it does not need
+	 *            to wait for other objects.
+	 * @return this validator
+	 */
+	public CombiningValidator<T> withBatchKey(@Nullable Function<? super T, ?> batchKeyFunction) {
+		this.batchKeyFunction = batchKeyFunction;
+		return this;
 	}
 
 	@Override
 	public ValidationResult validate(T t) {
-		for (Validator<T> validator : validators) {
-			ValidationResult result = validator.validate(t);
+		for (int i : nextOrder()) {
+			ValidationResult result = validate(i, t);
 			if (result.isErroneous()) {
-				validationListeners.forEach(listener -> listener.onValidationError(result));
 				return result;
 			}
 		}
 		return createValidationResult();
 	}
 
+	/**
+	 * Validates like {@link #validate(Object)}, but runs validations that may
+	 * block, e.g. because the json web keys are not cached, on the executor. All
+	 * other validations are run by the calling thread.
+	 *
+	 * @param t
+	 *            the object of type {@link T} to be validated.
+	 * @return the validation result, which is already completed in case no
+	 *         validation had to be run on the executor.
+	 */
+	@Override
+	public CompletableFuture<ValidationResult> validateAsync(T t) {
+		try {
+			return validateAsync(t, nextOrder(), 0);
+		} catch (RuntimeException e) {
+			CompletableFuture<ValidationResult> failedResult = new CompletableFuture<>();
+			failedResult.completeExceptionally(e);
+			return failedResult;
+		}
+	}
+
+	/**
+	 * Validates all given objects in parallel on the executor, e.g. the tokens of
+	 * the messages received by one poll. Objects of the same group (see
+	 * {@link #withBatchKey(Function)}) are validated after the first object of
+	 * their group, so that e.g. the json web keys are requested once per group.
+	 * An object whose validation throws an exception gets an invalid result, the
+	 * other objects are validated nevertheless.
+	 *
+	 * @param items
+	 *            the objects to be validated.
+	 * @return the validation results in the order of the given objects.
+	 */
+	public List<ValidationResult> validateAll(Collection<? extends T> items) {
+		Assertions.assertNotNull(items, "items must not be null.");
+		List<T> itemList = new ArrayList<>(items);
+		ValidationResult[] results = new ValidationResult[itemList.size()];
+		List<Integer> ungrouped = new ArrayList<>();
+		Map<Object, List<Integer>> groups = new LinkedHashMap<>();
+		for (int i = 0; i < itemList.size(); i++) {
+			Object batchKey = batchKeyFunction != null ? batchKeyFunction.apply(itemList.get(i)) : null;
+			if (batchKey == null) {
+				ungrouped.add(i);
+			} else {
+				groups.computeIfAbsent(batchKey, key -> new ArrayList<>()).add(i);
+			}
+		}
+		List<CompletableFuture<Void>> validations = new ArrayList<>();
+		validations.add(validateChunks(itemList, ungrouped, results));
+		for (List<Integer> group : groups.values()) {
+			validations.add(validateChunks(itemList, group.subList(0, 1), results)
+					.handle((firstValidated, e) -> null) // the others are validated anyhow
+					.thenCompose(firstValidated -> validateChunks(itemList, group.subList(1, group.size()), results)));
+		}
+		CompletableFuture.allOf(validations.toArray(new CompletableFuture[0]))
+				.handle((validated, e) -> null).join();
+		for (int i = 0; i < results.length; i++) {
+			if (results[i] == null) { // e.g. the executor rejected the validation
+				results[i] = ValidationResults.createInvalid(ValidationErrorCode.UNSPECIFIED,
+						"Unexpected error occurred: validation was not executed.");
+			}
+		}
+		return Collections.unmodifiableList(Arrays.asList(results));
+	}
+
+	private CompletableFuture<Void> validateChunks(List<T> items, List<Integer> indices, ValidationResult[] results) {
+		List<CompletableFuture<Void>> chunks = new ArrayList<>();
+		for (int from = 0; from < indices.size(); from += BATCH_CHUNK_SIZE) {
+			List<Integer> chunk = indices.subList(from, Math.min(from + BATCH_CHUNK_SIZE, indices.size()));
+			try {
+				chunks.add(CompletableFuture.runAsync(() -> {
+					for (int i : chunk) {
+						results[i] = validateOrCreateInvalid(items.get(i));
+					}
+				}, getExecutor()));
+			} catch (RejectedExecutionException e) {
+				CompletableFuture<Void> rejectedChunk = new CompletableFuture<>();
+				rejectedChunk.completeExceptionally(e);
+				chunks.add(rejectedChunk);
+			}
+		}
+		return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]));
+	}
+
+	private ValidationResult validateOrCreateInvalid(T t) {
+		try {
+			return validate(t);
+		} catch (RuntimeException e) {
+			return ValidationResults.createInvalid(ValidationErrorCode.UNSPECIFIED,
+					"Unexpected error occurred: {}", e.getMessage());
+		}
+	}
+
+	private CompletableFuture<ValidationResult> validateAsync(T t, int[] currentOrder, int position) {
+		for (int i = position; i < currentOrder.length; i++) {
+			int index = currentOrder[i];
+			Validator<T> validator = validators.get(index);
+			if (validator instanceof BlockingValidator && ((BlockingValidator<T>) validator).mayBlock(t)) {
+				int nextPosition = i + 1;
+				return CompletableFuture.supplyAsync(() -> validate(index, t), getExecutor())
+						.thenCompose(result -> result.isErroneous()
+								? CompletableFuture.completedFuture(result)
+								: validateAsync(t, currentOrder, nextPosition));
+			}
+			ValidationResult result = validate(index, t);
+			if (result.isErroneous()) {
+				return CompletableFuture.completedFuture(result);
+			}
+		}
+		return CompletableFuture.completedFuture(createValidationResult());
+	}
+
+	private Executor getExecutor() {
+		if (executor == null) {
+			synchronized (this) {
+				if (executor == null) {
+					executor = createDefaultExecutor();
+				}
+			}
+		}
+		return executor;
+	}
+
+	static ThreadPoolExecutor createDefaultExecutor() {
+		AtomicInteger threadNumber = new AtomicInteger();
+		ThreadPoolExecutor threadPool = new ThreadPoolExecutor(DEFAULT_EXECUTOR_THREADS, DEFAULT_EXECUTOR_THREADS,
+				60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(DEFAULT_EXECUTOR_QUEUE_SIZE), runnable -> {
+					Thread thread = new Thread(runnable, "token-validation-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.CallerRunsPolicy()); // applies back pressure instead of queuing
+		threadPool.allowCoreThreadTimeOut(true);
+		return threadPool;
+	}
+
+	private int[] nextOrder() {
+		if (isReorderable != null && validations.incrementAndGet() % REORDER_INTERVAL == 0) {
+			reorder();
+		}
+		return order;
+	}
+
+	private ValidationResult validate(int index, T t) {
+		if (!isRecordingStatistics) {
+			return notifyListeners(validators.get(index).validate(t));
+		}
+		long start = System.nanoTime();
+		ValidationResult result = validators.get(index).validate(t);
+		statistics[index].record(System.nanoTime() - start, result.isErroneous());
+		return notifyListeners(result);
+	}
+
+	private ValidationResult notifyListeners(ValidationResult result) {
+		if (result.isErroneous()) {
+			validationListeners.forEach(listener -> listener.onValidationError(result));
+		}
+		return result;
+	}
+
 	private ValidationResult createValidationResult() {
 		if (validators.isEmpty()) {
 			ValidationResult result = ValidationResults
-					.createInvalid("CombiningValidator must contain at least one validator!");
+					.createInvalid(ValidationErrorCode.CONFIGURATION_ERROR,
+							"CombiningValidator must contain at least one validator!");
 			validationListeners.forEach(listener -> listener.onValidationError(result));
 			return result;
 		} else {
@@ -53,10 +331,73 @@ public class CombiningValidator<T> implements Validator<T> {
 		}
 	}
 
+	private int[] initialOrder() {
+		int[] initialOrder = new int[validators.size()];
+		for (int i = 0; i < initialOrder.length; i++) {
+			initialOrder[i] = i;
+		}
+		return initialOrder;
+	}
+
+	/**
+	 * Sorts the validators by their rank. Afterwards the validators that are not
+	 * reorderable are put back in their original relative order, so that e.g. the
+	 * issuer is always validated before the signature.
+	 */
+	void reorder() {
+		List<Integer> ranked = new ArrayList<>();
+		for (int i = 0; i < statistics.length; i++) {
+			ranked.add(i);
+		}
+		double[] ranks = new double[statistics.length];
+		for (int i = 0; i < ranks.length; i++) {
+			ranks[i] = statistics[i].getRank();
+		}
+		ranked.sort(Comparator.comparingDouble(i -> ranks[i])); // stable
+		int[] newOrder = new int[ranked.size()];
+		int nextFixed = 0;
+		for (int position = 0; position < newOrder.length; position++) {
+			int index = ranked.get(position);
+			if (isReorderable[index]) {
+				newOrder[position] = index;
+			} else {
+				while (isReorderable[nextFixed]) {
+					nextFixed++;
+				}
+				newOrder[position] = nextFixed++;
+			}
+		}
+		order = newOrder;
+	}
+
 	public List<Validator<T>> getValidators() {
 		return validators;
 	}
 
+	/**
+	 * Returns the validators in the order they are currently applied.
+	 *
+	 * @return the validators.
+	 */
+	public List<Validator<T>> getOrderedValidators() {
+		List<Validator<T>> orderedValidators = new ArrayList<>();
+		for (int i : order) {
+			orderedValidators.add(validators.get(i));
+		}
+		return Collections.unmodifiableList(orderedValidators);
+	}
+
+	/**
+	 * Returns the statistics of the validators in the order of
+	 * {@link #getValidators()}. They are only recorded when enabled with
+	 * {@link #withStatistics()}.
+	 *
+	 * @return the statistics of each validator.
+	 */
+	public List<ValidatorStatistics> getStatistics() {
+		return Collections.unmodifiableList(Arrays.asList(statistics));
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder validatorNames = new StringBuilder();
@@ -0,0 +1,52 @@
+package com.sap.cloud.security.token.validation;
+
+/**
+ * Classifies why a {@link ValidationResult} is invalid, e.g. to count or
+ * monitor rejected tokens without parsing the error description.
+ */
+public enum ValidationErrorCode {
+	/**
+	 * The token is expired or does not provide an expiration.
+	 */
+	EXPIRED,
+	/**
+	 * The token must not be accepted yet.
+	 */
+	NOT_YET_VALID,
+	/**
+	 * The issuer or the 'jku' of the token is not trusted.
+	 */
+	UNTRUSTED_ISSUER,
+	/**
+	 * The audiences of the token do not contain a trusted client id.
+	 */
+	UNTRUSTED_AUDIENCE,
+	/**
+	 * The signature algorithm of the token is not supported.
+	 */
+	UNSUPPORTED_ALGORITHM,
+	/**
+	 * The json web keys or the oidc configuration could not be requested.
+	 */
+	KEY_RETRIEVAL_FAILED,
+	/**
+	 * There is no json web key with the key id of the token.
+	 */
+	UNKNOWN_KEY,
+	/**
+	 * The signature of the token can not be verified.
+	 */
+	INVALID_SIGNATURE,
+	/**
+	 * The token can not be decoded or parsed.
+	 */
+	MALFORMED_TOKEN,
+	/**
+	 * The validator is not configured properly.
+	 */
+	CONFIGURATION_ERROR,
+	/**
+	 * Any other reason, e.g. of a custom validator.
+	 */
+	UNSPECIFIED
+}
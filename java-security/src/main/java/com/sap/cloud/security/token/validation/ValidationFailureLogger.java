@@ -0,0 +1,147 @@
+package com.sap.cloud.security.token.validation;
+
+import com.sap.cloud.security.xsuaa.Assertions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Logs invalid {@link ValidationResult}s aggregated by
+ * {@link ValidationErrorCode}: instead of one line per rejected token at most
+ * one warning per log interval (default 1 minute) is written, which contains
+ * the number of failures per error code and one sample error description each.
+ * The first failure is logged immediately, the failures of an interval are
+ * logged with the first failure after the interval has passed or when the
+ * {@link #getFailureCounts() failure counts} are requested after the interval
+ * has passed, whatever comes first. Consequently, the failures of the last
+ * interval are not logged as long as neither happens. Every single failure is
+ * logged on debug level.
+ */
+public final class ValidationFailureLogger {
+	private static final ValidationErrorCode[] ERROR_CODES = ValidationErrorCode.values();
+	private static final ValidationFailureLogger INSTANCE = new ValidationFailureLogger(
+			LoggerFactory.getLogger(ValidationFailureLogger.class), System::currentTimeMillis);
+
+	private final Logger logger;
+	private final LongSupplier clock;
+	private final LongAdder[] counts = new LongAdder[ERROR_CODES.length];
+	private final LongAdder[] totalCounts = new LongAdder[ERROR_CODES.length];
+	private final AtomicReferenceArray<ValidationResult> samples = new AtomicReferenceArray<>(ERROR_CODES.length);
+	private final AtomicLong nextLogTimeMillis = new AtomicLong(Long.MIN_VALUE);
+	private volatile long logIntervalMillis = Duration.ofMinutes(1).toMillis();
+
+	ValidationFailureLogger(Logger logger, LongSupplier clock) {
+		this.logger = logger;
+		this.clock = clock;
+		for (int i = 0; i < ERROR_CODES.length; i++) {
+			counts[i] = new LongAdder();
+			totalCounts[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Returns the logger that is used by {@link ValidationResults}.
+	 *
+	 * @return the shared instance
+	 */
+	public static ValidationFailureLogger getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Sets the interval in which the failures are aggregated.
+	 *
+	 * @param logInterval
+	 *            the log interval, Duration.ZERO logs every failure.
+	 * @return this
+	 */
+	public ValidationFailureLogger withLogInterval(Duration logInterval) {
+		Assertions.assertNotNull(logInterval, "logInterval must not be null.");
+		this.logIntervalMillis = logInterval.toMillis();
+		return this;
+	}
+
+	/**
+	 * Returns the number of failures per error code since start. Logs the
+	 * aggregated failures, in case the log interval has passed.
+	 *
+	 * @return the failure counts.
+	 */
+	public Map<ValidationErrorCode, Long> getFailureCounts() {
+		logAggregatedFailuresIfIntervalPassed();
+		Map<ValidationErrorCode, Long> failureCounts = new EnumMap<>(ValidationErrorCode.class);
+		for (int i = 0; i < ERROR_CODES.length; i++) {
+			failureCounts.put(ERROR_CODES[i], totalCounts[i].sum());
+		}
+		return failureCounts;
+	}
+
+	/**
+	 * Returns the number of failures of the error code since start. Unlike
+	 * {@link #getFailureCounts()} this does not log the aggregated failures, e.g.
+	 * to be polled by a metrics registry.
+	 *
+	 * @param errorCode
+	 *            the error code
+	 * @return the failure count.
+	 */
+	public long getFailureCount(ValidationErrorCode errorCode) {
+		Assertions.assertNotNull(errorCode, "errorCode must not be null.");
+		return totalCounts[errorCode.ordinal()].sum();
+	}
+
+	void log(ValidationErrorCode errorCode, ValidationResult result) {
+		int index = errorCode.ordinal();
+		counts[index].increment();
+		totalCounts[index].increment();
+		samples.compareAndSet(index, null, result);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Token validation failed ({}): {}", errorCode, result.getErrorDescription());
+		}
+		logAggregatedFailuresIfIntervalPassed();
+	}
+
+	private void logAggregatedFailuresIfIntervalPassed() {
+		long now = clock.getAsLong();
+		long nextLogTime = nextLogTimeMillis.get();
+		if (now >= nextLogTime && hasPendingFailures()
+				&& nextLogTimeMillis.compareAndSet(nextLogTime, now + logIntervalMillis)) {
+			logAggregatedFailures();
+		}
+	}
+
+	private boolean hasPendingFailures() {
+		for (LongAdder count : counts) {
+			if (count.sum() > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void logAggregatedFailures() {
+		StringBuilder failures = new StringBuilder();
+		long total = 0;
+		for (int i = 0; i < ERROR_CODES.length; i++) {
+			long count = counts[i].sumThenReset();
+			ValidationResult sample = samples.getAndSet(i, null);
+			if (count > 0) {
+				total += count;
+				failures.append(failures.length() == 0 ? "" : ", ").append(ERROR_CODES[i]).append('=').append(count);
+				if (sample != null) {
+					failures.append(" (").append(sample.getErrorDescription()).append(')');
+				}
+			}
+		}
+		if (total > 0) {
+			logger.warn("Token validation failed {} times: {}", total, failures.toString());
+		}
+	}
+}
@@ -26,6 +26,16 @@ public interface ValidationResult {
 		return !isValid();
 	}
 
+	/**
+	 * Classifies the validation error.
+	 *
+	 * @return the error code or null in case the validation was valid.
+	 */
+	@Nullable
+	default ValidationErrorCode getErrorCode() {
+		return isValid() ? null : ValidationErrorCode.UNSPECIFIED;
+	}
+
 	/**
 	 * The validation error that have been found.
 	 *
@@ -1,11 +1,16 @@
 package com.sap.cloud.security.token.validation;
 
+import com.sap.cloud.security.xsuaa.Assertions;
+
 import javax.annotation.Nullable;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.slf4j.helpers.MessageFormatter;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * This is a factory class to easily create {@link ValidationResult} objects.
  */
@@ -15,8 +20,6 @@ public class ValidationResults {
 		// factory
 	}
 
-	private static final Logger logger = LoggerFactory.getLogger(ValidationResults.class);
-
 	/**
 	 * Creates an invalid {@link ValidationResult} that contains an error
 	 * description.
@@ -26,8 +29,7 @@ public class ValidationResults {
 	 * @return an invalid {@link ValidationResult} containing an error description.
 	 */
 	public static ValidationResult createInvalid(String errorDescription) {
-		logger.warn(errorDescription);
-		return new ValidationResultImpl(errorDescription);
+		return createInvalid(ValidationErrorCode.UNSPECIFIED, errorDescription);
 	}
 
 	/**
@@ -51,8 +53,29 @@ public class ValidationResults {
 	 * @return an invalid {@link ValidationResult} containing one error description.
 	 */
 	public static ValidationResult createInvalid(String errorDescriptionTemplate, Object... arguments) {
-		String format = MessageFormatter.arrayFormat(errorDescriptionTemplate, arguments).getMessage();
-		return createInvalid(format);
+		return createInvalid(ValidationErrorCode.UNSPECIFIED, errorDescriptionTemplate, arguments);
+	}
+
+	/**
+	 * Works just like {@link #createInvalid(String, Object...)} but classifies the
+	 * failure with an error code. The error description is formatted only when it
+	 * is requested. The failure is logged by the
+	 * {@link ValidationFailureLogger}, aggregated per error code.
+	 *
+	 * @param errorCode
+	 *            the reason of the failure.
+	 * @param errorDescriptionTemplate
+	 *            the description as template used to create the error description.
+	 * @param arguments
+	 *            the arguments that are filled inside the description template.
+	 * @return an invalid {@link ValidationResult} containing one error description.
+	 */
+	public static ValidationResult createInvalid(ValidationErrorCode errorCode, String errorDescriptionTemplate,
+			Object... arguments) {
+		Assertions.assertNotNull(errorCode, "errorCode must not be null.");
+		ValidationResult result = new ValidationResultImpl(errorCode, errorDescriptionTemplate, arguments);
+		ValidationFailureLogger.getInstance().log(errorCode, result);
+		return result;
 	}
 
 	/**
@@ -66,20 +89,65 @@ public class ValidationResults {
 	}
 
 	static class ValidationResultImpl implements ValidationResult {
+		private static final Object[] NO_ARGUMENTS = new Object[0];
+
+		@Nullable
+		private final ValidationErrorCode errorCode;
+		private final String errorDescriptionTemplate;
+		private final Object[] arguments;
+		private String validationError; // formatted on first access
+
+		ValidationResultImpl(@Nullable ValidationErrorCode errorCode, String errorDescriptionTemplate,
+				Object... arguments) {
+			this.errorCode = errorCode;
+			this.errorDescriptionTemplate = errorDescriptionTemplate;
+			this.arguments = arguments != null ? snapshot(arguments) : NO_ARGUMENTS;
+		}
 
-		private final String validationError;
+		/**
+		 * As the error description is formatted lazily, mutable arguments such as
+		 * collections are copied, so that the description reflects the state at
+		 * the time of the failure.
+		 */
+		private static Object[] snapshot(Object[] arguments) {
+			if (arguments.length == 0) {
+				return NO_ARGUMENTS;
+			}
+			Object[] snapshot = arguments.clone();
+			for (int i = 0; i < snapshot.length; i++) {
+				if (snapshot[i] instanceof Collection) {
+					snapshot[i] = new ArrayList<>((Collection<?>) snapshot[i]);
+				} else if (snapshot[i] instanceof Map) {
+					snapshot[i] = new LinkedHashMap<>((Map<?, ?>) snapshot[i]);
+				} else if (snapshot[i] instanceof Object[]) {
+					snapshot[i] = ((Object[]) snapshot[i]).clone();
+				}
+			}
+			return snapshot;
+		}
 
-		public ValidationResultImpl(String validationError) {
-			this.validationError = validationError;
+		ValidationResultImpl() {
+			this(null, null);
 		}
 
-		public ValidationResultImpl() {
-			this(null);
+		@Override
+		public boolean isValid() {
+			return errorCode == null;
+		}
+
+		@Nullable
+		@Override
+		public ValidationErrorCode getErrorCode() {
+			return errorCode;
 		}
 
 		@Nullable
 		@Override
 		public String getErrorDescription() {
+			if (validationError == null && errorCode != null) {
+				validationError = arguments.length == 0 ? errorDescriptionTemplate
+						: MessageFormatter.arrayFormat(errorDescriptionTemplate, arguments).getMessage();
+			}
 			return validationError;
 		}
 
@@ -0,0 +1,112 @@
+package com.sap.cloud.security.token.validation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how often a validator of a {@link CombiningValidator} was invoked,
+ * how often it rejected and how long it took.
+ */
+public class ValidatorStatistics {
+	private final String validatorName;
+	private final LongAdder acceptances = new LongAdder();
+	private final LongAdder acceptanceNanos = new LongAdder();
+	private final LongAdder rejections = new LongAdder();
+	private final LongAdder rejectionNanos = new LongAdder();
+
+	ValidatorStatistics(String validatorName) {
+		this.validatorName = validatorName;
+	}
+
+	void record(long durationInNanos, boolean rejected) {
+		if (rejected) {
+			rejections.increment();
+			rejectionNanos.add(durationInNanos);
+		} else {
+			acceptances.increment();
+			acceptanceNanos.add(durationInNanos);
+		}
+	}
+
+	/**
+	 * The expected cost to reject a token: the average duration divided by the
+	 * rejection rate. Validators with a lower rank are run first.
+	 */
+	double getRank() {
+		long rejected = rejections.sum();
+		return rejected == 0 ? Double.POSITIVE_INFINITY : (double) getTotalNanos() / rejected;
+	}
+
+	/**
+	 * @return the class name of the validator.
+	 */
+	public String getValidatorName() {
+		return validatorName;
+	}
+
+	/**
+	 * @return the number of validations.
+	 */
+	public long getInvocations() {
+		return acceptances.sum() + rejections.sum();
+	}
+
+	/**
+	 * @return the number of valid results.
+	 */
+	public long getAcceptances() {
+		return acceptances.sum();
+	}
+
+	/**
+	 * @return the number of invalid results.
+	 */
+	public long getRejections() {
+		return rejections.sum();
+	}
+
+	/**
+	 * @return the share of invalid results, between 0 and 1.
+	 */
+	public double getRejectionRate() {
+		long rejected = rejections.sum();
+		long invoked = acceptances.sum() + rejected;
+		return invoked == 0 ? 0 : (double) rejected / invoked;
+	}
+
+	/**
+	 * @return the average duration of a validation in nanoseconds.
+	 */
+	public long getAverageNanos() {
+		long invoked = getInvocations();
+		return invoked == 0 ? 0 : getTotalNanos() / invoked;
+	}
+
+	/**
+	 * @return the total duration of all validations in nanoseconds.
+	 */
+	public long getTotalNanos() {
+		return acceptanceNanos.sum() + rejectionNanos.sum();
+	}
+
+	/**
+	 * @return the total duration of the validations with valid result in
+	 *         nanoseconds.
+	 */
+	public long getAcceptanceNanos() {
+		return acceptanceNanos.sum();
+	}
+
+	/**
+	 * @return the total duration of the validations with invalid result in
+	 *         nanoseconds.
+	 */
+	public long getRejectionNanos() {
+		return rejectionNanos.sum();
+	}
+
+	@Override
+	public String toString() {
+		return validatorName + "{invocations=" + getInvocations() + ", rejections=" + getRejections()
+				+ ", averageNanos=" + getAverageNanos() + "}";
+	}
+}
@@ -3,6 +3,7 @@ package com.sap.cloud.security.token.validation.validators;
 import static com.sap.cloud.security.xsuaa.Assertions.assertHasText;
 
 import com.sap.cloud.security.token.Token;
+import com.sap.cloud.security.token.validation.ValidationErrorCode;
 import com.sap.cloud.security.token.validation.ValidationResult;
 import com.sap.cloud.security.token.validation.ValidationResults;
 import com.sap.cloud.security.token.validation.Validator;
@@ -11,7 +12,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.LinkedHashSet;
-import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -27,6 +27,8 @@ public class JwtAudienceValidator implements Validator<Token> {
 	private static final char DOT = '.';
 
 	private final Set<String> clientIds = new LinkedHashSet<>();
+	private volatile String[] trustedClientIds = new String[0];
+	private volatile String[] brokerCloneSuffixes = new String[0];
 
 	JwtAudienceValidator(String clientId) {
 		configureTrustedClientId(clientId);
@@ -35,6 +37,11 @@ public class JwtAudienceValidator implements Validator<Token> {
 	JwtAudienceValidator configureTrustedClientId(String clientId) {
 		assertHasText(clientId, "JwtAudienceValidator requires a clientId.");
 		clientIds.add(clientId);
+		trustedClientIds = clientIds.toArray(new String[0]);
+		brokerCloneSuffixes = clientIds.stream()
+				.filter(configuredClientId -> configuredClientId.contains("!b"))
+				.map(configuredClientId -> "|" + configuredClientId)
+				.toArray(String[]::new);
 		logger.info("configured JwtAudienceValidator with clientId {}.", clientId);
 
 		return this;
@@ -42,36 +49,49 @@ public class JwtAudienceValidator implements Validator<Token> {
 
 	@Override
 	public ValidationResult validate(Token token) {
-		Set<String> allowedAudiences = getAllowedAudiences(token);
-		return Optional.ofNullable(validateDefault(allowedAudiences))
-				.orElse(
-						Optional.ofNullable(validateAudienceOfXsuaaBrokerClone(allowedAudiences))
-								.orElse(ValidationResults.createInvalid(
-										"Jwt token with audience {} is not issued for these clientIds: {}.",
-										allowedAudiences,
-										clientIds)));
-	}
-
-	private ValidationResult validateDefault(Set<String> allowedAudiences) {
-		for (String configuredClientId : clientIds) {
-			if (allowedAudiences.contains(configuredClientId)) {
+		for (String audience : token.getAudiences()) {
+			if (isTrustedAudience(audience)) {
 				return ValidationResults.createValid();
 			}
 		}
-		return null;
+		return ValidationResults.createInvalid(
+				ValidationErrorCode.UNTRUSTED_AUDIENCE,
+				"Jwt token with audience {} is not issued for these clientIds: {}.",
+				getAllowedAudiences(token),
+				clientIds);
 	}
 
-	private ValidationResult validateAudienceOfXsuaaBrokerClone(Set<String> allowedAudiences) {
-		for (String configuredClientId : clientIds) {
-			if (configuredClientId.contains("!b")) {
-				for (String audience : allowedAudiences) {
-					if (audience.contains("|") && audience.endsWith("|" + configuredClientId)) {
-						return ValidationResults.createValid();
-					}
-				}
+	/**
+	 * Checks whether the audience, without namespace (see
+	 * {@link #getAllowedAudiences(Token)}), matches one of the configured client
+	 * ids or ends with "|" + client id of a xsuaa broker. The audience is
+	 * compared in place, without creating substrings.
+	 */
+	private boolean isTrustedAudience(String audience) {
+		int dot = audience.indexOf(DOT);
+		int begin = 0;
+		int end = dot < 0 ? audience.length() : dot;
+		if (dot >= 0) {
+			while (begin < end && audience.charAt(begin) <= ' ') {
+				begin++;
+			}
+			while (end > begin && audience.charAt(end - 1) <= ' ') {
+				end--;
+			}
+		}
+		int length = end - begin;
+		for (String clientId : trustedClientIds) {
+			if (clientId.length() == length && audience.regionMatches(begin, clientId, 0, length)) {
+				return true;
+			}
+		}
+		for (String suffix : brokerCloneSuffixes) {
+			if (suffix.length() <= length
+					&& audience.regionMatches(end - suffix.length(), suffix, 0, suffix.length())) {
+				return true;
 			}
 		}
-		return null;
+		return false;
 	}
 
 	/**
@@ -13,6 +13,7 @@ import org.slf4j.LoggerFactory;
 import com.sap.cloud.security.config.OAuth2ServiceConfiguration;
 import com.sap.cloud.security.token.Token;
 import com.sap.cloud.security.token.TokenClaims;
+import com.sap.cloud.security.token.validation.ValidationErrorCode;
 import com.sap.cloud.security.token.validation.ValidationResult;
 import com.sap.cloud.security.token.validation.Validator;
 
@@ -45,6 +46,7 @@ public class JwtIssuerValidator implements Validator<Token> {
 		String issuer = token.getClaimAsString(TokenClaims.ISSUER);
 		if (issuer == null || issuer.trim().isEmpty()) {
 			return createInvalid(
+					ValidationErrorCode.UNTRUSTED_ISSUER,
 					"Issuer validation can not be performed because Jwt token does not contain 'iss' claim.");
 		}
 		return matchesTokenIssuerUrl(issuer);
@@ -55,6 +57,7 @@ public class JwtIssuerValidator implements Validator<Token> {
 		try {
 			if (!issuer.startsWith("http")) {
 				return createInvalid(
+						ValidationErrorCode.UNTRUSTED_ISSUER,
 						"Issuer is not trusted because 'iss' claim '{}' does not provide a valid URI (missing http scheme). Please contact your Identity Provider Administrator.",
 						issuer);
 			}
@@ -66,6 +69,7 @@ public class JwtIssuerValidator implements Validator<Token> {
 			logger.error("Error: 'iss' claim '{}' does not provide a valid URI: {}.", issuer, e.getMessage(), e);
 		}
 		return createInvalid(
+				ValidationErrorCode.UNTRUSTED_ISSUER,
 				"Issuer is not trusted because 'iss' '{}' does not match host '{}' of the identity provider.",
 				issuer, url.getHost());
 	}
@@ -1,5 +1,6 @@
 package com.sap.cloud.security.token.validation.validators;
 
+import static com.sap.cloud.security.config.cf.CFConstants.XSUAA.UAA_DOMAIN;
 import static com.sap.cloud.security.token.TokenClaims.*;
 import static com.sap.cloud.security.token.validation.ValidationResults.createInvalid;
 import static com.sap.cloud.security.token.validation.ValidationResults.createValid;
@@ -7,27 +8,40 @@ import static com.sap.cloud.security.token.validation.validators.JsonWebKey.DEFA
 import static com.sap.cloud.security.token.validation.validators.JsonWebKeyConstants.*;
 import static com.sap.cloud.security.xsuaa.Assertions.assertHasText;
 import static com.sap.cloud.security.xsuaa.Assertions.assertNotNull;
-import static java.nio.charset.StandardCharsets.*;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
 import java.security.Signature;
+import java.security.SignatureException;
 import java.security.spec.InvalidKeySpecException;
-import java.util.Base64;
-import java.util.regex.Pattern;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.sap.cloud.security.config.OAuth2ServiceConfiguration;
 import com.sap.cloud.security.config.Service;
+import com.sap.cloud.security.token.AbstractToken;
 import com.sap.cloud.security.token.Token;
+import com.sap.cloud.security.token.validation.BlockingValidator;
+import com.sap.cloud.security.token.validation.ValidationErrorCode;
 import com.sap.cloud.security.token.validation.ValidationResult;
-import com.sap.cloud.security.token.validation.Validator;
 
 import com.sap.cloud.security.xsuaa.client.DefaultOidcConfigurationService;
 import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
+import com.sap.cloud.security.xsuaa.jwt.JwtSegments;
 
 /**
  * Validates whether the jwt was signed with the public key of the trust-worthy
@@ -38,10 +52,14 @@ import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
  * - checks whether the jwt is unchanged and signed with a private key that
  * matches the PublicKey.
  */
-public class JwtSignatureValidator implements Validator<Token> {
+public class JwtSignatureValidator implements BlockingValidator<Token> {
+	private static final Logger LOGGER = LoggerFactory.getLogger(JwtSignatureValidator.class);
 	private final OAuth2TokenKeyServiceWithCache tokenKeyService;
 	private final OidcConfigurationServiceWithCache oidcConfigurationService;
+	private final SignatureVerifierPool signatureVerifiers = new SignatureVerifierPool();
 	private OAuth2ServiceConfiguration configuration;
+	private VerifiedTokenCache verifiedTokenCache;
+	private boolean isCanonicalJwksUriEnabled;
 
 	JwtSignatureValidator(OAuth2ServiceConfiguration configuration, OAuth2TokenKeyServiceWithCache tokenKeyService,
 			OidcConfigurationServiceWithCache oidcConfigurationService) {
@@ -54,6 +72,34 @@ public class JwtSignatureValidator implements Validator<Token> {
 		this.oidcConfigurationService = oidcConfigurationService;
 	}
 
+	/**
+	 * Enables caching of successfully verified tokens.
+	 *
+	 * @param verifiedTokenCache
+	 *            the cache, or null in case every token should be verified.
+	 * @return this
+	 */
+	JwtSignatureValidator withVerifiedTokenCache(@Nullable VerifiedTokenCache verifiedTokenCache) {
+		this.verifiedTokenCache = verifiedTokenCache;
+		return this;
+	}
+
+	/**
+	 * Requests the keys of XSUAA tokens from the token key url of the configured
+	 * identity zone ({@link OAuth2ServiceConfiguration#getUrl()}) instead of the
+	 * tenant specific 'jku', so that the keys are requested and cached only once
+	 * for all tenants. In case the key id is not known there or the signature can
+	 * not be verified with its key, the 'jku' of the token is used.
+	 *
+	 * @param enabled
+	 *            true, to request the keys from the configured identity zone
+	 * @return this
+	 */
+	JwtSignatureValidator withCanonicalJwksUri(boolean enabled) {
+		this.isCanonicalJwksUriEnabled = enabled;
+		return this;
+	}
+
 	@Override
 	public ValidationResult validate(Token token) {
 		String jwksUri;
@@ -67,12 +113,44 @@ public class JwtSignatureValidator implements Validator<Token> {
 			}
 			keyId = getOrDefaultKeyId(token);
 			return validate(token.getTokenValue(),
+					token instanceof AbstractToken ? ((AbstractToken) token)::getSegments : null,
 					getOrDefaultSignatureAlgorithm(token),
 					keyId,
 					jwksUri,
-					fallbackPublicKey);
+					fallbackPublicKey,
+					token.getExpiration());
+		} catch (OAuth2ServiceException | IllegalArgumentException e) {
+			return createInvalid(ValidationErrorCode.KEY_RETRIEVAL_FAILED,
+					"Error occurred during jwks uri determination: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * The validation may block in case the oidc configuration or the json web
+	 * keys have to be requested from the identity service.
+	 */
+	@Override
+	public boolean mayBlock(Token token) {
+		try {
+			URI discoveryUri = getDiscoveryUri(token);
+			if (discoveryUri != null && oidcConfigurationService.getCachedEndpoints(discoveryUri) == null) {
+				return true;
+			}
+			URI jwksUri = URI.create(getOrRequestJwksUri(token));
+			JwtSignatureAlgorithm algorithm = JwtSignatureAlgorithm.fromValue(getOrDefaultSignatureAlgorithm(token));
+			String keyId = getOrDefaultKeyId(token);
+			URI canonicalJwksUri = getCanonicalJwksUri(jwksUri);
+			if (canonicalJwksUri != null) {
+				if (tokenKeyService.isCached(algorithm, keyId, canonicalJwksUri)) {
+					return false;
+				}
+				if (!tokenKeyService.isServedFromCache(algorithm, keyId, canonicalJwksUri)) {
+					return true;
+				}
+			}
+			return !tokenKeyService.isServedFromCache(algorithm, keyId, jwksUri);
 		} catch (OAuth2ServiceException | IllegalArgumentException e) {
-			return createInvalid("Error occurred during jwks uri determination: {}", e.getMessage());
+			return false; // the validation fails without request
 		}
 	}
 
@@ -109,11 +187,8 @@ public class JwtSignatureValidator implements Validator<Token> {
 			// 'jku' was validated by XsuaaJwtIssuerValidator
 			return token.getHeaderParameterAsString(KEYS_URL_PARAMETER_NAME);
 		}
-		if (configuration.getService() != Service.XSUAA && token.hasClaim(ISSUER)) {
-			// 'iss' claim was validated by JwtIssuerValidator
-			// don't call in case of XSA Auth Code tokens as issuer is not valid there
-			// as XSUAA issuer contains often localhost this was not validated as well
-			URI discoveryUri = DefaultOidcConfigurationService.getDiscoveryEndpointUri(token.getClaimAsString(ISSUER));
+		URI discoveryUri = getDiscoveryUri(token);
+		if (discoveryUri != null) {
 			URI jkuUri = oidcConfigurationService
 					.getOrRetrieveEndpoints(discoveryUri)
 					.getJwksUri();
@@ -125,48 +200,122 @@ public class JwtSignatureValidator implements Validator<Token> {
 				"Token signature can not be validated as jwks uri can not be determined: Token does not provide the required 'jku' header or 'issuer' claim.");
 	}
 
+	@Nullable
+	private URI getDiscoveryUri(Token token) {
+		if (!configuration.isLegacyMode() && configuration.getService() != Service.XSUAA
+				&& token.hasClaim(ISSUER)) {
+			// 'iss' claim was validated by JwtIssuerValidator
+			// don't call in case of XSA Auth Code tokens as issuer is not valid there
+			// as XSUAA issuer contains often localhost this was not validated as well
+			return DefaultOidcConfigurationService.getDiscoveryEndpointUri(token.getClaimAsString(ISSUER));
+		}
+		return null;
+	}
+
 	// for testing
 	ValidationResult validate(String token, String tokenAlgorithm, String tokenKeyId, String tokenKeysUrl,
 			@Nullable String fallbackPublicKey) {
+		return validate(token, null, tokenAlgorithm, tokenKeyId, tokenKeysUrl, fallbackPublicKey, null);
+	}
+
+	/**
+	 * @param tokenSegments
+	 *            provides the segments located when the token was decoded, null
+	 *            to scan the token for its segments.
+	 */
+	ValidationResult validate(String token, @Nullable Supplier<JwtSegments> tokenSegments, String tokenAlgorithm,
+			String tokenKeyId, String tokenKeysUrl, @Nullable String fallbackPublicKey,
+			@Nullable Instant expiration) {
 		assertHasText(token, "token must not be null or empty.");
 		assertHasText(tokenAlgorithm, "tokenAlgorithm must not be null or empty.");
 		assertHasText(tokenKeyId, "tokenKeyId must not be null or empty.");
 		assertHasText(tokenKeysUrl, "tokenKeysUrl must not be null or empty.");
 
-		return Validation.getInstance().validate(tokenKeyService, token, tokenAlgorithm, tokenKeyId,
-				URI.create(tokenKeysUrl), fallbackPublicKey);
+		URI tokenKeysUri = URI.create(tokenKeysUrl);
+		return Validation.getInstance(token, tokenSegments, signatureVerifiers).validate(tokenKeyService, tokenAlgorithm, tokenKeyId,
+				tokenKeysUri, getCanonicalJwksUri(tokenKeysUri), fallbackPublicKey, verifiedTokenCache, expiration);
+	}
+
+	/**
+	 * The 'jku' was validated by XsuaaJwtIssuerValidator: its host is the uaa
+	 * domain with the tenant specific subdomain.
+	 */
+	@Nullable
+	private URI getCanonicalJwksUri(URI tokenKeysUri) {
+		if (!isCanonicalJwksUriEnabled || configuration.getService() != Service.XSUAA || configuration.isLegacyMode()
+				|| !configuration.hasProperty(UAA_DOMAIN) || configuration.getUrl() == null
+				|| tokenKeysUri.getHost() == null) {
+			return null;
+		}
+		String host = configuration.getUrl().getHost();
+		if (host == null || !tokenKeysUri.getHost().endsWith("." + configuration.getProperty(UAA_DOMAIN))
+				|| tokenKeysUri.getHost().equals(host)) {
+			return null;
+		}
+		try {
+			return new URI(tokenKeysUri.getScheme(), null, host, tokenKeysUri.getPort(), tokenKeysUri.getPath(),
+					tokenKeysUri.getQuery(), null);
+		} catch (URISyntaxException e) {
+			return null;
+		}
 	}
 
 	private static class Validation {
+		final String token;
+		@Nullable
+		final Supplier<JwtSegments> tokenSegments;
+		final SignatureVerifierPool signatureVerifiers;
 		JwtSignatureAlgorithm jwtSignatureAlgorithm;
 		PublicKey publicKey;
-		Signature publicSignature;
+		SignatureVerifier signatureVerifier;
+		PublicKey unverifiedCanonicalPublicKey; // did not verify the token
+
+		private Validation(String token, @Nullable Supplier<JwtSegments> tokenSegments,
+				SignatureVerifierPool signatureVerifiers) {
+			this.token = token;
+			this.tokenSegments = tokenSegments;
+			this.signatureVerifiers = signatureVerifiers;
+		}
 
-		private Validation() {
+		static Validation getInstance(String token, @Nullable Supplier<JwtSegments> tokenSegments,
+				SignatureVerifierPool signatureVerifiers) {
+			return new Validation(token, tokenSegments, signatureVerifiers);
 		}
 
-		static Validation getInstance() {
-			return new Validation();
+		/**
+		 * @throws IllegalArgumentException
+		 *             in case the token does not consist of three segments.
+		 */
+		JwtSegments getTokenSegments() {
+			return tokenSegments != null ? tokenSegments.get() : JwtSegments.of(token);
 		}
 
-		ValidationResult validate(OAuth2TokenKeyServiceWithCache tokenKeyService, String token,
-				String tokenAlgorithm, String tokenKeyId, URI tokenKeysUrl, @Nullable String fallbackPublicKey) {
+		ValidationResult validate(OAuth2TokenKeyServiceWithCache tokenKeyService, String tokenAlgorithm,
+				String tokenKeyId, URI tokenKeysUrl, @Nullable URI canonicalTokenKeysUrl,
+				@Nullable String fallbackPublicKey, @Nullable VerifiedTokenCache verifiedTokenCache,
+				@Nullable Instant expiration) {
 			ValidationResult validationResult;
+			boolean isCacheable = verifiedTokenCache != null;
 
 			validationResult = setSupportedJwtAlgorithm(tokenAlgorithm);
 			if (validationResult.isErroneous()) {
 				return validationResult;
 			}
 
+			if (canonicalTokenKeysUrl != null && isVerifiedWithCanonicalKey(tokenKeyService, tokenKeyId,
+					canonicalTokenKeysUrl, verifiedTokenCache, expiration)) {
+				return createValid();
+			}
 			validationResult = setPublicKey(tokenKeyService, tokenKeyId, tokenKeysUrl);
 			if (validationResult.isErroneous()) {
 				if (fallbackPublicKey != null) {
 					try {
 						this.publicKey = JsonWebKeyImpl.createPublicKeyFromPemEncodedPublicKey(
 								JwtSignatureAlgorithm.RS256, fallbackPublicKey);
-
+						isCacheable = false; // fallback key is created for every validation
 					} catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
 						return createInvalid(
+								ValidationErrorCode.KEY_RETRIEVAL_FAILED,
 								"Error occurred during signature validation: ({}). Fallback with configured 'verificationkey' was not successful.",
 								e.getMessage());
 					}
@@ -174,12 +323,64 @@ public class JwtSignatureValidator implements Validator<Token> {
 					return validationResult;
 				}
 			}
-			validationResult = setPublicSignatureForKeyType();
+			if (isCacheable && verifiedTokenCache.isVerified(token, publicKey)) {
+				return createValid();
+			}
+			validationResult = setSignatureVerifierForKeyType();
 			if (validationResult.isErroneous()) {
 				return validationResult;
 			}
 
-			return validateTokenSignature(token, publicKey, publicSignature);
+			try {
+				validationResult = validateTokenSignature(publicKey, signatureVerifier);
+			} finally {
+				signatureVerifiers.release(signatureVerifier);
+			}
+			if (isCacheable && validationResult.isValid()) {
+				verifiedTokenCache.put(token, publicKey, expiration);
+			}
+			return validationResult;
+		}
+
+		/**
+		 * Does not create an invalid result, as the validation falls back to the
+		 * 'jku' of the token. A failure is only recorded when this fails as well.
+		 * In case the 'jku' provides the same key, the signature is not verified
+		 * again (see {@link #validateTokenSignature(PublicKey, SignatureVerifier)}).
+		 */
+		private boolean isVerifiedWithCanonicalKey(OAuth2TokenKeyServiceWithCache tokenKeyService, String keyId,
+				URI canonicalKeyUri, @Nullable VerifiedTokenCache verifiedTokenCache, @Nullable Instant expiration) {
+			try {
+				PublicKey canonicalPublicKey = tokenKeyService.getPublicKey(jwtSignatureAlgorithm, keyId,
+						canonicalKeyUri);
+				if (canonicalPublicKey == null) {
+					return false;
+				}
+				if (verifiedTokenCache != null && verifiedTokenCache.isVerified(token, canonicalPublicKey)) {
+					return true;
+				}
+				boolean isVerified;
+				SignatureVerifier verifier = signatureVerifiers.borrow(jwtSignatureAlgorithm);
+				try {
+					isVerified = verifier.verify(canonicalPublicKey, getTokenSegments());
+				} finally {
+					signatureVerifiers.release(verifier);
+				}
+				if (isVerified && verifiedTokenCache != null) {
+					verifiedTokenCache.put(token, canonicalPublicKey, expiration);
+				} else if (!isVerified) {
+					unverifiedCanonicalPublicKey = canonicalPublicKey;
+				}
+				return isVerified;
+			} catch (OAuth2ServiceException | NoSuchAlgorithmException | InvalidKeySpecException e) {
+				LOGGER.warn("Json web keys could not be retrieved from {}, the 'jku' of the token is used instead: {}",
+						canonicalKeyUri, e.getMessage());
+				return false;
+			} catch (InvalidKeyException | SignatureException | IllegalArgumentException e) {
+				// e.g. malformed token, the validation with the 'jku' creates the invalid result
+				LOGGER.debug("Jwt could not be verified with the key of {}: {}", canonicalKeyUri, e.getMessage());
+				return false;
+			}
 		}
 
 		private ValidationResult setSupportedJwtAlgorithm(String tokenAlgorithm) {
@@ -188,7 +389,8 @@ public class JwtSignatureValidator implements Validator<Token> {
 				if (jwtSignatureAlgorithm != null) {
 					return createValid();
 				}
-				return createInvalid("Jwt token with signature algorithm '{}' is not supported.", tokenAlgorithm);
+				return createInvalid(ValidationErrorCode.UNSUPPORTED_ALGORITHM,
+						"Jwt token with signature algorithm '{}' is not supported.", tokenAlgorithm);
 			}
 			return createValid();
 		}
@@ -198,52 +400,118 @@ public class JwtSignatureValidator implements Validator<Token> {
 			try {
 				this.publicKey = tokenKeyService.getPublicKey(jwtSignatureAlgorithm, keyId, keyUri);
 			} catch (OAuth2ServiceException e) {
-				return createInvalid("Error retrieving Json Web Keys from Identity Service: {}.", e.getMessage());
+				return createInvalid(ValidationErrorCode.KEY_RETRIEVAL_FAILED,
+						"Error retrieving Json Web Keys from Identity Service: {}.", e.getMessage());
 			} catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
-				return createInvalid("Error creating PublicKey from Json Web Key received from {}: {}.",
+				return createInvalid(ValidationErrorCode.KEY_RETRIEVAL_FAILED,
+						"Error creating PublicKey from Json Web Key received from {}: {}.",
 						keyUri, e.getMessage());
 			}
 			if (this.publicKey == null) {
 				return createInvalid(
+						ValidationErrorCode.UNKNOWN_KEY,
 						"There is no Json Web Token Key with keyId '{}' and type '{}' to prove the identity of the Jwt.",
 						keyId, jwtSignatureAlgorithm.type());
 			}
 			return createValid();
 		}
 
-		private ValidationResult setPublicSignatureForKeyType() {
+		private ValidationResult setSignatureVerifierForKeyType() {
 			try {
-				publicSignature = Signature.getInstance(jwtSignatureAlgorithm.javaSignature());
+				signatureVerifier = signatureVerifiers.borrow(jwtSignatureAlgorithm);
 				return createValid();
 			} catch (NoSuchAlgorithmException e) {
 				// should never happen
 			}
-			return createInvalid("Jwt token with signature algorithm '{}' can not be verified.",
+			return createInvalid(ValidationErrorCode.UNSUPPORTED_ALGORITHM,
+					"Jwt token with signature algorithm '{}' can not be verified.",
 					jwtSignatureAlgorithm.javaSignature());
 		}
 
-		private static final Pattern DOT = Pattern.compile("\\.", 0);
-
-		static ValidationResult validateTokenSignature(String token, PublicKey publicKey, Signature publicSignature) {
-			String[] tokenHeaderPayloadSignature = DOT.split(token);
-			if (tokenHeaderPayloadSignature.length != 3) {
-				return createInvalid("Jwt token does not consist of 'header'.'payload'.'signature'.");
+		private ValidationResult validateTokenSignature(PublicKey publicKey, SignatureVerifier signatureVerifier) {
+			JwtSegments tokenSegments;
+			try {
+				tokenSegments = getTokenSegments();
+			} catch (IllegalArgumentException e) {
+				return createInvalid(ValidationErrorCode.INVALID_SIGNATURE,
+						"Jwt token does not consist of 'header'.'payload'.'signature'.");
 			}
-			String headerAndPayload = new StringBuilder(tokenHeaderPayloadSignature[0]).append(".")
-					.append(tokenHeaderPayloadSignature[1]).toString();
 			try {
-				publicSignature.initVerify(publicKey);
-				publicSignature.update(headerAndPayload.getBytes(UTF_8)); // provide data
-
-				byte[] decodedSignatureBytes = Base64.getUrlDecoder().decode(tokenHeaderPayloadSignature[2]);
-
-				if (publicSignature.verify(decodedSignatureBytes)) {
+				// skip the key that did already not verify the token, see isVerifiedWithCanonicalKey
+				if (publicKey != unverifiedCanonicalPublicKey && signatureVerifier.verify(publicKey, tokenSegments)) {
 					return createValid();
 				}
 				return createInvalid(
+						ValidationErrorCode.INVALID_SIGNATURE,
 						"Signature of Jwt Token is not valid: the identity provided by the JSON Web Token Key can not be verified.");
 			} catch (Exception e) {
-				return createInvalid("Error occurred during Json Web Signature Validation: {}.", e.getMessage());
+				return createInvalid(ValidationErrorCode.INVALID_SIGNATURE,
+						"Error occurred during Json Web Signature Validation: {}.", e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Keeps the idle {@link SignatureVerifier}s of a validator per algorithm, so
+	 * that the provider lookup is done only once per verifier and a signature is
+	 * only initialized again in case the public key has changed. Unlike a thread
+	 * local, the pool is discarded together with the validator and does not keep
+	 * the verifiers alive on the (container) threads.
+	 */
+	static class SignatureVerifierPool {
+		private static final int MAX_IDLE_VERIFIERS = Math.max(2, Runtime.getRuntime().availableProcessors());
+		private final Map<JwtSignatureAlgorithm, BlockingQueue<SignatureVerifier>> idleVerifiers = new EnumMap<>(
+				JwtSignatureAlgorithm.class);
+
+		SignatureVerifierPool() {
+			for (JwtSignatureAlgorithm algorithm : JwtSignatureAlgorithm.values()) {
+				idleVerifiers.put(algorithm, new ArrayBlockingQueue<>(MAX_IDLE_VERIFIERS));
+			}
+		}
+
+		/**
+		 * Returns an idle verifier or creates a new one. It must be released after
+		 * use.
+		 */
+		SignatureVerifier borrow(JwtSignatureAlgorithm algorithm) throws NoSuchAlgorithmException {
+			SignatureVerifier verifier = idleVerifiers.get(algorithm).poll();
+			return verifier != null ? verifier
+					: new SignatureVerifier(algorithm, Signature.getInstance(algorithm.javaSignature()));
+		}
+
+		/**
+		 * Keeps the verifier for reuse, unless there are enough idle verifiers.
+		 */
+		void release(SignatureVerifier verifier) {
+			idleVerifiers.get(verifier.algorithm).offer(verifier);
+		}
+	}
+
+	static class SignatureVerifier {
+		private final JwtSignatureAlgorithm algorithm;
+		private final Signature signature;
+		private PublicKey initializedPublicKey;
+
+		private SignatureVerifier(JwtSignatureAlgorithm algorithm, Signature signature) {
+			this.algorithm = algorithm;
+			this.signature = signature;
+		}
+
+		boolean verify(PublicKey publicKey, JwtSegments tokenSegments) throws InvalidKeyException, SignatureException {
+			ByteBuffer signatureBytes = tokenSegments.decodeSignature();
+			if (initializedPublicKey != publicKey) {
+				initializedPublicKey = null;
+				signature.initVerify(publicKey);
+				initializedPublicKey = publicKey;
+			}
+			try {
+				tokenSegments.updateSignedContent(signature);
+				// resets the signature for the next verification
+				return signature.verify(signatureBytes.array(), signatureBytes.arrayOffset() + signatureBytes.position(),
+						signatureBytes.remaining());
+			} catch (SignatureException | RuntimeException e) {
+				initializedPublicKey = null; // initialize again to reset the signature
+				throw e;
 			}
 		}
 	}
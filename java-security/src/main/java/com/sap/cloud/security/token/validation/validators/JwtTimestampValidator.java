@@ -5,6 +5,7 @@ import static com.sap.cloud.security.token.validation.ValidationResults.createIn
 import javax.annotation.Nullable;
 
 import com.sap.cloud.security.token.Token;
+import com.sap.cloud.security.token.validation.ValidationErrorCode;
 import com.sap.cloud.security.token.validation.ValidationResult;
 import com.sap.cloud.security.token.validation.ValidationResults;
 import com.sap.cloud.security.token.validation.Validator;
@@ -30,11 +31,16 @@ public class JwtTimestampValidator implements Validator<Token> {
 	 */
 	private static final TemporalAmount DEFAULT_TOLERANCE = Duration.ofMinutes(1);
 
+	@Nullable
 	private final Supplier<Instant> timeProvider;
-	private final TemporalAmount tolerance;
+	private final long toleranceMillis;
 
+	/**
+	 * Compares the timestamps with the system clock.
+	 */
 	JwtTimestampValidator() {
-		this(Instant::now, DEFAULT_TOLERANCE);
+		this.timeProvider = null;
+		this.toleranceMillis = Duration.from(DEFAULT_TOLERANCE).toMillis();
 	}
 
 	/**
@@ -42,7 +48,7 @@ public class JwtTimestampValidator implements Validator<Token> {
 	 */
 	JwtTimestampValidator(Supplier<Instant> timeProvider, @Nullable TemporalAmount tolerance) {
 		this.timeProvider = timeProvider;
-		this.tolerance = tolerance != null ? tolerance : DEFAULT_TOLERANCE;
+		this.toleranceMillis = Duration.from(tolerance != null ? tolerance : DEFAULT_TOLERANCE).toMillis();
 	}
 
 	@Override
@@ -53,7 +59,8 @@ public class JwtTimestampValidator implements Validator<Token> {
 		if (expiration != null) {
 			validationResult = checkExpiration(expiration);
 		} else {
-			return ValidationResults.createInvalid("Jwt does not contain expiration (exp) claim. Cannot be validated!");
+			return ValidationResults.createInvalid(ValidationErrorCode.EXPIRED,
+					"Jwt does not contain expiration (exp) claim. Cannot be validated!");
 		}
 
 		Instant notBefore = token.getNotBefore(); // considers "iat" as well
@@ -68,7 +75,7 @@ public class JwtTimestampValidator implements Validator<Token> {
 		if (isNotExpired(expiration)) {
 			return ValidationResults.createValid();
 		}
-		return createInvalid("Jwt expired at {}, time now: {}", expiration, now());
+		return createInvalid(ValidationErrorCode.EXPIRED, "Jwt expired at {}, time now: {}", expiration, now());
 
 	}
 
@@ -76,19 +83,32 @@ public class JwtTimestampValidator implements Validator<Token> {
 		if (canBeAccepted(notBeforeTimestamp)) {
 			return ValidationResults.createValid();
 		}
-		return createInvalid("Jwt cannot be accepted before {}, time now: {}", notBeforeTimestamp, now());
+		return createInvalid(ValidationErrorCode.NOT_YET_VALID,
+				"Jwt cannot be accepted before {}, time now: {}", notBeforeTimestamp, now());
 	}
 
 	private boolean canBeAccepted(Instant notBeforeTimestamp) {
-		return now().isAfter(notBeforeTimestamp.minus(tolerance));
+		return nowMillis() + toleranceMillis > toEpochMillis(notBeforeTimestamp);
 	}
 
 	private boolean isNotExpired(Instant expiration) {
-		return expiration.plus(tolerance).isAfter(now());
+		return toEpochMillis(expiration) > nowMillis() - toleranceMillis;
+	}
+
+	private static long toEpochMillis(Instant timestamp) {
+		try {
+			return timestamp.toEpochMilli();
+		} catch (ArithmeticException e) {
+			return timestamp.getEpochSecond() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+		}
+	}
+
+	private long nowMillis() {
+		return timeProvider != null ? timeProvider.get().toEpochMilli() : System.currentTimeMillis();
 	}
 
 	private Instant now() {
-		return timeProvider.get();
+		return timeProvider != null ? timeProvider.get() : Instant.now();
 	}
 
 }
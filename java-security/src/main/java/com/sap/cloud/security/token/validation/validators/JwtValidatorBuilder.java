@@ -3,6 +3,7 @@ package com.sap.cloud.security.token.validation.validators;
 import com.sap.cloud.security.config.OAuth2ServiceConfiguration;
 import com.sap.cloud.security.config.cf.CFConstants;
 import com.sap.cloud.security.token.Token;
+import com.sap.cloud.security.token.TokenClaims;
 import com.sap.cloud.security.token.validation.CombiningValidator;
 import com.sap.cloud.security.token.validation.ValidationListener;
 import com.sap.cloud.security.token.validation.Validator;
@@ -12,10 +13,13 @@ import org.apache.http.impl.client.CloseableHttpClient;
 
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.concurrent.Executor;
 
 import static com.sap.cloud.security.config.Service.IAS;
 import static com.sap.cloud.security.config.Service.XSUAA;
 import static com.sap.cloud.security.config.cf.CFConstants.XSUAA.UAA_DOMAIN;
+import static com.sap.cloud.security.token.validation.validators.JsonWebKeyConstants.KEYS_URL_PARAMETER_NAME;
+import static com.sap.cloud.security.token.validation.validators.JsonWebKeyConstants.KEY_ID_PARAMETER_NAME;
 
 /**
  * Class used to build a token validator for a oauth service configuration
@@ -30,7 +34,15 @@ public class JwtValidatorBuilder {
 	private OAuth2ServiceConfiguration otherConfiguration;
 	private OidcConfigurationService oidcConfigurationService = null;
 	private OAuth2TokenKeyService tokenKeyService = null;
+	private Object oidcConfigurationServiceKey; // identifies the shared cache
+	private Object tokenKeyServiceKey; // identifies the shared cache
+	private OidcConfigurationServiceWithCache oidcConfigurationServiceWithCache; // access via getter
+	private OAuth2TokenKeyServiceWithCache tokenKeyServiceWithCache; // access via getter
 	private Validator<Token> customAudienceValidator;
+	private VerifiedTokenCache verifiedTokenCache;
+	private boolean isCanonicalJwksUriEnabled;
+	private boolean isAdaptiveOrderingEnabled;
+	private Executor asyncValidationExecutor;
 
 	private JwtValidatorBuilder() {
 		// use getInstance factory method
@@ -89,7 +101,29 @@ public class JwtValidatorBuilder {
 	 */
 	@Deprecated
 	public JwtValidatorBuilder withOAuth2TokenKeyService(OAuth2TokenKeyService tokenKeyService) {
+		return withOAuth2TokenKeyService(tokenKeyService, tokenKeyService);
+	}
+
+	/**
+	 * Overwrite in case you want to configure your own
+	 * {@link OAuth2TokenKeyService} instance. Validators that are configured with
+	 * the same cache key share their json web key cache, hence
+	 * {@link OAuth2TokenKeyServiceWithCache#clearCache()} clears the keys of all
+	 * of them.
+	 *
+	 * @param tokenKeyService
+	 *            your token key service
+	 * @param cacheKey
+	 *            identifies the shared cache, e.g. the rest client used by the
+	 *            token key service
+	 * @return this builder
+	 * @deprecated for internal use only
+	 */
+	@Deprecated
+	public JwtValidatorBuilder withOAuth2TokenKeyService(OAuth2TokenKeyService tokenKeyService, Object cacheKey) {
 		this.tokenKeyService = tokenKeyService;
+		this.tokenKeyServiceKey = cacheKey;
+		resetTokenKeyServiceWithCache();
 		return this;
 	}
 
@@ -104,13 +138,37 @@ public class JwtValidatorBuilder {
 	 */
 	@Deprecated
 	public JwtValidatorBuilder withOidcConfigurationService(OidcConfigurationService oidcConfigurationService) {
+		return withOidcConfigurationService(oidcConfigurationService, oidcConfigurationService);
+	}
+
+	/**
+	 * Overwrite in case you want to configure your own
+	 * {@link OidcConfigurationService} instance. Validators that are configured
+	 * with the same cache key share their oidc configuration cache, hence
+	 * {@link OidcConfigurationServiceWithCache#clearCache()} clears the
+	 * configurations of all of them.
+	 *
+	 * @param oidcConfigurationService
+	 *            your oidc configuration service
+	 * @param cacheKey
+	 *            identifies the shared cache, e.g. the rest client used by the
+	 *            oidc configuration service
+	 * @return this builder
+	 * @deprecated for internal use only
+	 */
+	@Deprecated
+	public JwtValidatorBuilder withOidcConfigurationService(OidcConfigurationService oidcConfigurationService,
+			Object cacheKey) {
 		this.oidcConfigurationService = oidcConfigurationService;
+		this.oidcConfigurationServiceKey = cacheKey;
+		resetOidcConfigurationServiceWithCache();
 		return this;
 	}
 
 	/**
 	 * In case you want to configure the {@link OidcConfigurationService} and the
-	 * the {@link OAuth2TokenKeyService} with your own Rest client.
+	 * the {@link OAuth2TokenKeyService} with your own Rest client. Validators that
+	 * use the same Rest client share their caches.
 	 *
 	 * @param httpClient
 	 *            your own http client
@@ -120,10 +178,77 @@ public class JwtValidatorBuilder {
 		if (httpClient != null) {
 			this.oidcConfigurationService = new DefaultOidcConfigurationService(httpClient);
 			this.tokenKeyService = new DefaultOAuth2TokenKeyService(httpClient);
+			this.oidcConfigurationServiceKey = httpClient;
+			this.tokenKeyServiceKey = httpClient;
+			resetOidcConfigurationServiceWithCache();
+			resetTokenKeyServiceWithCache();
 		}
 		return this;
 	}
 
+	/**
+	 * Enables caching of tokens whose signature was already verified. A token that
+	 * is presented again within its lifetime is then not verified again, as long as
+	 * the json web key it was verified with is still cached. Disabled by default.
+	 *
+	 * @param verifiedTokenCache
+	 *            the cache, e.g. {@code VerifiedTokenCache.getInstance()}
+	 * @return this builder
+	 */
+	public JwtValidatorBuilder withVerifiedTokenCache(@Nullable VerifiedTokenCache verifiedTokenCache) {
+		this.verifiedTokenCache = verifiedTokenCache;
+		return this;
+	}
+
+	/**
+	 * Enables that the json web keys of XSUAA tokens are requested from the token
+	 * key url of the configured identity zone, instead of the tenant specific
+	 * 'jku' header, which was validated against the uaa domain. So the keys are
+	 * requested and cached once for all subscribed tenants. The 'jku' is used in
+	 * case the key id of the token is not known there. Disabled by default.
+	 *
+	 * @param enabled
+	 *            true, to request the keys once for all tenants
+	 * @return this builder
+	 */
+	public JwtValidatorBuilder withCanonicalJwksUri(boolean enabled) {
+		this.isCanonicalJwksUriEnabled = enabled;
+		return this;
+	}
+
+	/**
+	 * Enables that the timestamp and the default audience validator are moved in
+	 * front of the other validators in case they reject tokens cheaply, see
+	 * {@link CombiningValidator#withAdaptiveOrdering(Validator[])}. The issuer is
+	 * always validated before the signature. Disabled by default.
+	 *
+	 * @param enabled
+	 *            true, to reorder validators based on their statistics
+	 * @return this builder
+	 */
+	public JwtValidatorBuilder withAdaptiveValidatorOrdering(boolean enabled) {
+		this.isAdaptiveOrderingEnabled = enabled;
+		return this;
+	}
+
+	/**
+	 * Sets the executor that requests the json web keys or the oidc configuration
+	 * in case they are not cached, when tokens are validated with
+	 * {@link CombiningValidator#validateAsync(Object)}. All other validations are
+	 * run by the calling thread. The executor also validates the tokens of
+	 * {@link CombiningValidator#validateAll(Collection)} in parallel. Defaults to
+	 * a thread pool of the validator, see
+	 * {@link CombiningValidator#withExecutor(Executor)}.
+	 *
+	 * @param executor
+	 *            the executor, e.g. a dedicated thread pool for blocking requests
+	 * @return this builder
+	 */
+	public JwtValidatorBuilder withAsyncValidationExecutor(@Nullable Executor executor) {
+		this.asyncValidationExecutor = executor;
+		return this;
+	}
+
 	/**
 	 * Allows to provide another service configuration, e.g. in case you have
 	 * multiple Xsuaa identity service instances and you like to accept tokens
@@ -160,9 +285,22 @@ public class JwtValidatorBuilder {
 	 */
 	public CombiningValidator<Token> build() {
 		List<Validator<Token>> allValidators = createDefaultValidators();
+		List<Validator<Token>> reorderableValidators = new ArrayList<>();
+		for (Validator<Token> validator : allValidators) {
+			if (validator instanceof JwtTimestampValidator || validator instanceof JwtAudienceValidator) {
+				reorderableValidators.add(validator);
+			}
+		}
 		allValidators.addAll(validators);
 
 		CombiningValidator<Token> combiningValidator = new CombiningValidator<>(allValidators);
+		if (isAdaptiveOrderingEnabled) {
+			combiningValidator.withAdaptiveOrdering(reorderableValidators.toArray(new Validator[0]));
+		}
+		if (asyncValidationExecutor != null) {
+			combiningValidator.withExecutor(asyncValidationExecutor);
+		}
+		combiningValidator.withBatchKey(JwtValidatorBuilder::getBatchKey);
 		validationListeners.forEach(combiningValidator::registerValidationListener);
 		return combiningValidator;
 	}
@@ -181,7 +319,9 @@ public class JwtValidatorBuilder {
 		JwtSignatureValidator signatureValidator = new JwtSignatureValidator(
 				configuration,
 				getTokenKeyServiceWithCache(),
-				getOidcConfigurationServiceWithCache());
+				getOidcConfigurationServiceWithCache())
+						.withVerifiedTokenCache(verifiedTokenCache)
+						.withCanonicalJwksUri(isCanonicalJwksUriEnabled);
 		defaultValidators.add(signatureValidator);
 
 		Optional.ofNullable(customAudienceValidator).ifPresent(defaultValidators::add);
@@ -192,6 +332,21 @@ public class JwtValidatorBuilder {
 		return defaultValidators;
 	}
 
+	/**
+	 * Tokens with the same 'jku', key id and issuer are verified with the same
+	 * json web key, which needs to be requested only once.
+	 */
+	@Nullable
+	private static Object getBatchKey(Token token) {
+		try {
+			return Arrays.asList(token.getHeaderParameterAsString(KEYS_URL_PARAMETER_NAME),
+					token.getHeaderParameterAsString(KEY_ID_PARAMETER_NAME),
+					token.getClaimAsString(TokenClaims.ISSUER));
+		} catch (RuntimeException e) {
+			return null; // e.g. issuer is not a string, the validation fails anyhow
+		}
+	}
+
 	private JwtAudienceValidator createAudienceValidator() {
 		JwtAudienceValidator jwtAudienceValidator = new JwtAudienceValidator(configuration.getClientId());
 		if (configuration.hasProperty(CFConstants.XSUAA.APP_ID)) {
@@ -206,20 +361,33 @@ public class JwtValidatorBuilder {
 		return jwtAudienceValidator;
 	}
 
-	private OAuth2TokenKeyServiceWithCache getTokenKeyServiceWithCache() {
-		if (tokenKeyService != null) {
-			return OAuth2TokenKeyServiceWithCache.getInstance()
-					.withTokenKeyService(tokenKeyService);
+	/**
+	 * The caches are shared with other builders, see {@link SharedCacheRegistry}.
+	 */
+	private synchronized OAuth2TokenKeyServiceWithCache getTokenKeyServiceWithCache() {
+		if (tokenKeyServiceWithCache == null) {
+			OAuth2TokenKeyService service = tokenKeyService;
+			tokenKeyServiceWithCache = SharedCacheRegistry.getInstance().acquireTokenKeyService(tokenKeyServiceKey,
+					() -> service);
 		}
-		return OAuth2TokenKeyServiceWithCache.getInstance();
+		return tokenKeyServiceWithCache;
 	}
 
-	private OidcConfigurationServiceWithCache getOidcConfigurationServiceWithCache() {
-		if (oidcConfigurationService != null) {
-			return OidcConfigurationServiceWithCache.getInstance()
-					.withOidcConfigurationService(oidcConfigurationService);
+	private synchronized OidcConfigurationServiceWithCache getOidcConfigurationServiceWithCache() {
+		if (oidcConfigurationServiceWithCache == null) {
+			OidcConfigurationService service = oidcConfigurationService;
+			oidcConfigurationServiceWithCache = SharedCacheRegistry.getInstance()
+					.acquireOidcConfigurationService(oidcConfigurationServiceKey, () -> service);
 		}
-		return OidcConfigurationServiceWithCache.getInstance();
+		return oidcConfigurationServiceWithCache;
+	}
+
+	private synchronized void resetTokenKeyServiceWithCache() {
+		tokenKeyServiceWithCache = null; // unused shared caches are garbage collected
+	}
+
+	private synchronized void resetOidcConfigurationServiceWithCache() {
+		oidcConfigurationServiceWithCache = null;
 	}
 
 }
@@ -2,31 +2,76 @@ package com.sap.cloud.security.token.validation.validators;
 
 import static com.sap.cloud.security.xsuaa.Assertions.assertHasText;
 import static com.sap.cloud.security.xsuaa.Assertions.assertNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 import javax.annotation.Nullable;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
 import java.security.spec.InvalidKeySpecException;
-import java.util.Set;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.sap.cloud.security.xsuaa.client.DefaultOAuth2TokenKeyService;
 import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
 import com.sap.cloud.security.xsuaa.client.OAuth2TokenKeyService;
 
 /**
  * Decorates {@link OAuth2TokenKeyService} with a cache, which gets looked up
- * before the identity service is requested via http.
+ * before the identity service is requested via http. <br>
+ * Keys that are older than the cache time are refreshed in the background,
+ * while the cached keys are still served. In case the identity service is not
+ * available, the last known keys are served for a grace period and the refresh
+ * is retried after the refresh retry interval. <br>
+ * Identical key sets and keys that are provided by several jwks URIs, e.g. the
+ * tenant specific token key URLs of XSUAA, are parsed and kept only once, so
+ * that each further jwks URI only costs a small cache entry. <br>
+ * The cached keys can be written to a snapshot file, which is loaded on
+ * startup to avoid requesting the identity service with the first requests.
  */
 public class OAuth2TokenKeyServiceWithCache {
+	private static final Logger LOGGER = LoggerFactory.getLogger(OAuth2TokenKeyServiceWithCache.class);
+
 	private OAuth2TokenKeyService tokenKeyService; // access via getter
-	private Cache<String, PublicKey> cache; // access via getter
-	private long cacheValidityInSeconds = 600; // old keys should expire after 15 minutes
+	private volatile LoadingCache<URI, TokenKeys> cache; // access via getter
+	private long cacheValidityInSeconds = 600; // keys get refreshed after 10 minutes
+	private long cacheGracePeriodInSeconds = 3600; // old keys are served for 1 hour, if refresh fails
 	private long cacheSize = 1000;
+	private long minRefetchIntervalInSeconds = 30; // unknown key ids don't trigger a request within 30 seconds
+	private long refreshRetryIntervalInSeconds = 30; // a failed refresh is retried after 30 seconds
+	private final Map<URI, LongAdder> suppressedRefetchCounts = new ConcurrentHashMap<>();
+	private final Map<URI, Long> failedRefreshTimes = new ConcurrentHashMap<>(); // by cache ticker
+	private final Cache<ByteBuffer, PublicKey> publicKeyInstances = Caffeine.newBuilder().weakValues().build();
+	private final Cache<String, KeySet> keySetInstances = Caffeine.newBuilder().weakValues().build(); // by json
+	private Ticker cacheTicker = Ticker.systemTicker();
+	private Executor cacheExecutor = ForkJoinPool.commonPool();
 
 	private OAuth2TokenKeyServiceWithCache() {
 		// use getInstance factory method
@@ -43,7 +88,8 @@ public class OAuth2TokenKeyServiceWithCache {
 	}
 
 	/**
-	 * Caches the Json web keys. Overwrite the cache time (default: 900 seconds).
+	 * Caches the Json web keys. Overwrite the cache time (default: 600 seconds).
+	 * Afterwards the keys get refreshed in the background.
 	 *
 	 * @param timeInSeconds
 	 *            time to cache the signing keys
@@ -58,10 +104,84 @@ public class OAuth2TokenKeyServiceWithCache {
 	}
 
 	/**
-	 * Caches the Json web keys. Overwrite the size of the cache (default: 100).
+	 * Overwrite the time the Json web keys are still served after the cache time
+	 * has passed and they could not be refreshed, e.g. because the identity
+	 * service is not available (default: 3600 seconds).
+	 *
+	 * @param timeInSeconds
+	 *            time to serve outdated signing keys, 0 to disable
+	 * @return this
+	 */
+	public OAuth2TokenKeyServiceWithCache withCacheGracePeriod(int timeInSeconds) {
+		if (timeInSeconds < 0) {
+			throw new IllegalArgumentException("The cache grace period must not be negative");
+		}
+		this.cacheGracePeriodInSeconds = timeInSeconds;
+		return this;
+	}
+
+	/**
+	 * Overwrite the minimum time between two requests to the same jwks URI that
+	 * are caused by an unknown key id (default: 30 seconds). Within this time,
+	 * tokens with an unknown key id are answered from the cached keys, so that
+	 * forged tokens can not be used to flood the identity service.
+	 *
+	 * @param timeInSeconds
+	 *            minimum time between two requests, 0 to disable
+	 * @return this
+	 */
+	public OAuth2TokenKeyServiceWithCache withMinRefetchInterval(int timeInSeconds) {
+		if (timeInSeconds < 0) {
+			throw new IllegalArgumentException("The minimum refetch interval must not be negative");
+		}
+		this.minRefetchIntervalInSeconds = timeInSeconds;
+		return this;
+	}
+
+	/**
+	 * Overwrite the minimum time after a failed refresh of outdated keys, before
+	 * the refresh is retried (default: 30 seconds). In the meantime the outdated
+	 * keys are served without requesting the identity service.
+	 *
+	 * @param timeInSeconds
+	 *            minimum time between two refresh attempts, 0 to disable
+	 * @return this
+	 */
+	public OAuth2TokenKeyServiceWithCache withRefreshRetryInterval(int timeInSeconds) {
+		if (timeInSeconds < 0) {
+			throw new IllegalArgumentException("The refresh retry interval must not be negative");
+		}
+		this.refreshRetryIntervalInSeconds = timeInSeconds;
+		return this;
+	}
+
+	/**
+	 * Returns the minimum time between two requests to the same jwks URI that are
+	 * caused by an unknown key id.
+	 *
+	 * @return the minimum refetch interval.
+	 */
+	public Duration getMinRefetchInterval() {
+		return Duration.ofSeconds(minRefetchIntervalInSeconds);
+	}
+
+	/**
+	 * Returns how often a request to the jwks URI was suppressed, because a key id
+	 * was unknown within the minimum refetch interval.
+	 *
+	 * @return the number of suppressed requests by jwks URI.
+	 */
+	public Map<URI, Long> getSuppressedRefetchCounts() {
+		Map<URI, Long> counts = new HashMap<>();
+		suppressedRefetchCounts.forEach((jwksUri, count) -> counts.put(jwksUri, count.sum()));
+		return counts;
+	}
+
+	/**
+	 * Caches the Json web keys. Overwrite the size of the cache (default: 1000).
 	 *
 	 * @param size
-	 *            number of cached json web keys.
+	 *            number of cached json web key sets, i.e. distinct jwks URIs.
 	 * @return this
 	 */
 	public OAuth2TokenKeyServiceWithCache withCacheSize(int size) {
@@ -86,7 +206,8 @@ public class OAuth2TokenKeyServiceWithCache {
 
 	/**
 	 * Returns the cached key by id and type or requests the keys from the jwks URI
-	 * of the identity service.
+	 * of the identity service. An unknown key id does not cause a request in case
+	 * the keys were requested within the minimum refetch interval.
 	 *
 	 * @param keyAlgorithm
 	 *            the Key Algorithm of the Access Token.
@@ -112,32 +233,268 @@ public class OAuth2TokenKeyServiceWithCache {
 		assertHasText(keyId, "keyId must not be null.");
 		assertNotNull(keyUri, "keyUrl must not be null.");
 
-		String cacheKey = getUniqueCacheKey(keyAlgorithm, keyId, keyUri);
+		String cacheKey = getKeySetKey(keyAlgorithm, keyId);
+
+		TokenKeys tokenKeys = getCache().getIfPresent(keyUri);
+		if (tokenKeys == null) {
+			tokenKeys = retrieveTokenKeysAndFillCache(keyUri, null);
+		} else if (!tokenKeys.keySet.publicKeys.containsKey(cacheKey)) {
+			if (isRetrievedRecently(keyUri)) {
+				suppressedRefetchCounts.computeIfAbsent(keyUri, uri -> new LongAdder()).increment();
+				LOGGER.debug("Key id '{}' is unknown, the keys were requested from {} recently.", keyId, keyUri);
+				return null;
+			}
+			tokenKeys = retrieveTokenKeysAndFillCache(keyUri, tokenKeys);
+		} else {
+			retryFailedRefresh(keyUri);
+		}
+		return tokenKeys != null ? tokenKeys.keySet.publicKeys.get(cacheKey) : null;
+	}
+
+	/**
+	 * Refreshes the outdated keys in the background, in case the last refresh
+	 * failed at least the refresh retry interval ago. Only one of the concurrent
+	 * threads triggers the refresh.
+	 */
+	private void retryFailedRefresh(URI jwksUri) {
+		Long failedRefreshTime = failedRefreshTimes.get(jwksUri);
+		if (failedRefreshTime == null) {
+			return;
+		}
+		long now = cacheTicker.read();
+		if (now - failedRefreshTime >= TimeUnit.SECONDS.toNanos(refreshRetryIntervalInSeconds)
+				&& failedRefreshTimes.replace(jwksUri, failedRefreshTime, now)) {
+			getCache().refresh(jwksUri);
+		}
+	}
+
+	/**
+	 * Checks whether {@link #getPublicKey(JwtSignatureAlgorithm, String, URI)}
+	 * returns without requesting the jwks URI, because the key is cached or the
+	 * keys were requested recently.
+	 */
+	boolean isServedFromCache(JwtSignatureAlgorithm keyAlgorithm, String keyId, URI keyUri) {
+		return isCached(keyAlgorithm, keyId, keyUri) || isRetrievedRecently(keyUri);
+	}
+
+	boolean isCached(JwtSignatureAlgorithm keyAlgorithm, String keyId, URI keyUri) {
+		TokenKeys tokenKeys = getCache().getIfPresent(keyUri);
+		return tokenKeys != null
+				&& tokenKeys.keySet.publicKeys.containsKey(getKeySetKey(keyAlgorithm, keyId));
+	}
+
+	private boolean isRetrievedRecently(URI jwksUri) {
+		TokenKeys tokenKeys = getCache().getIfPresent(jwksUri);
+		return tokenKeys != null
+				&& getAgeInNanos(tokenKeys) < TimeUnit.SECONDS.toNanos(minRefetchIntervalInSeconds);
+	}
+
+	private long getAgeInNanos(TokenKeys tokenKeys) {
+		return cacheTicker.read() - tokenKeys.retrievedAt;
+	}
 
-		PublicKey publicKey = getCache().getIfPresent(cacheKey);
-		if (publicKey == null) {
-			retrieveTokenKeysAndFillCache(keyUri);
+	/**
+	 * Requests the keys from the jwks URI unless another thread has replaced the
+	 * outdated keys in the meantime. Concurrent requests for the same jwks URI
+	 * wait for the one in-flight request and share its result.
+	 */
+	@Nullable
+	private TokenKeys retrieveTokenKeysAndFillCache(URI jwksUri, @Nullable TokenKeys outdatedTokenKeys)
+			throws OAuth2ServiceException, InvalidKeySpecException, NoSuchAlgorithmException {
+		try {
+			return getCache().asMap().compute(jwksUri, (uri, cachedTokenKeys) -> {
+				if (cachedTokenKeys != outdatedTokenKeys) {
+					return cachedTokenKeys; // already retrieved by another thread
+				}
+				try {
+					return retrieveTokenKeys(jwksUri);
+				} catch (OAuth2ServiceException | InvalidKeySpecException | NoSuchAlgorithmException e) {
+					throw new TokenKeyRetrievalException(e);
+				}
+			});
+		} catch (TokenKeyRetrievalException e) {
+			Exception cause = e.getCause();
+			if (cause instanceof OAuth2ServiceException) {
+				throw (OAuth2ServiceException) cause;
+			}
+			if (cause instanceof InvalidKeySpecException) {
+				throw (InvalidKeySpecException) cause;
+			}
+			throw (NoSuchAlgorithmException) cause;
 		}
-		return getCache().getIfPresent(cacheKey);
 	}
 
-	private void retrieveTokenKeysAndFillCache(URI jwksUri)
+	private TokenKeys retrieveTokenKeys(URI jwksUri)
 			throws OAuth2ServiceException, InvalidKeySpecException, NoSuchAlgorithmException {
-		JsonWebKeySet keySet = JsonWebKeySetFactory.createFromJson(getTokenKeyService().retrieveTokenKeys(jwksUri));
+		TokenKeys tokenKeys = createTokenKeys(getTokenKeyService().retrieveTokenKeys(jwksUri), cacheTicker.read());
+		failedRefreshTimes.remove(jwksUri);
+		return tokenKeys;
+	}
+
+	/**
+	 * @param retrievedAt
+	 *            the time the keys were requested from the jwks URI according to
+	 *            the cache ticker, the keys expire relative to it.
+	 */
+	private TokenKeys createTokenKeys(@Nullable String json, long retrievedAt)
+			throws InvalidKeySpecException, NoSuchAlgorithmException {
+		if (json == null) {
+			return new TokenKeys(createKeySet(null), retrievedAt);
+		}
+		KeySet keySet = keySetInstances.getIfPresent(json);
 		if (keySet == null) {
-			return;
+			KeySet createdKeySet = createKeySet(json);
+			keySet = keySetInstances.asMap().computeIfAbsent(json, key -> createdKeySet);
 		}
-		Set<JsonWebKey> jwks = keySet.getAll();
-		for (JsonWebKey jwk : jwks) {
-			getCache().put(getUniqueCacheKey(jwk.getKeyAlgorithm(), jwk.getId(), jwksUri), jwk.getPublicKey());
+		return new TokenKeys(keySet, retrievedAt);
+	}
+
+	/**
+	 * Keeps only one instance of identical keys, e.g. provided by the tenant
+	 * specific jwks URIs, and keeps the instances of unchanged keys on refresh, so
+	 * that tokens remain verified (see {@link VerifiedTokenCache}).
+	 */
+	private KeySet createKeySet(@Nullable String json) throws InvalidKeySpecException, NoSuchAlgorithmException {
+		JsonWebKeySet keySet = JsonWebKeySetFactory.createFromJson(json);
+		Map<String, PublicKey> publicKeys = new HashMap<>();
+		for (JsonWebKey jwk : keySet.getAll()) {
+			PublicKey publicKey = jwk.getPublicKey();
+			publicKeys.put(getKeySetKey(jwk.getKeyAlgorithm(), jwk.getId()),
+					publicKeyInstances.get(ByteBuffer.wrap(publicKey.getEncoded()), encodedKey -> publicKey));
+		}
+		return new KeySet(json, Collections.unmodifiableMap(publicKeys));
+	}
+
+	/**
+	 * Returns the age of the cached json web key sets. Key sets that are older
+	 * than the cache time are outdated: they get refreshed in the background and
+	 * are served at most until the grace period has passed.
+	 *
+	 * @return the age of the cached key sets by jwks URI.
+	 */
+	public Map<URI, Duration> getCacheEntryAges() {
+		Map<URI, Duration> cacheEntryAges = new HashMap<>();
+		if (cache != null) {
+			cache.asMap().forEach((jwksUri, tokenKeys) -> cacheEntryAges.put(jwksUri,
+					Duration.ofMillis(TimeUnit.NANOSECONDS.toMillis(getAgeInNanos(tokenKeys)))));
+		}
+		return cacheEntryAges;
+	}
+
+	/**
+	 * Writes the cached json web key sets atomically to the given file, so that
+	 * they can be loaded with {@link #loadSnapshot(Path)} after a restart.
+	 *
+	 * @param file
+	 *            the snapshot file, which gets replaced.
+	 * @throws IOException
+	 *             in case the file could not be written.
+	 */
+	public void writeSnapshot(Path file) throws IOException {
+		assertNotNull(file, "file must not be null.");
+		JSONObject snapshot = new JSONObject();
+		if (cache != null) {
+			cache.asMap().forEach((jwksUri, tokenKeys) -> {
+				if (tokenKeys.keySet.json != null) {
+					snapshot.put(jwksUri.toString(), new JSONObject(tokenKeys.keySet.json));
+				}
+			});
+		}
+		Path directory = file.toAbsolutePath().getParent();
+		Path tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+		try {
+			Files.write(tempFile, snapshot.toString().getBytes(UTF_8));
+			try {
+				Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+	/**
+	 * Fills the cache with the json web key sets of the given snapshot file
+	 * written by {@link #writeSnapshot(Path)}, e.g. on startup. These keys are
+	 * served without requesting the identity service, but get refreshed in the
+	 * background immediately. The loaded keys are as old as the snapshot file, i.e.
+	 * they expire when the cache time plus the grace period have passed since the
+	 * snapshot was written. Outdated snapshots are ignored.
+	 *
+	 * @param file
+	 *            the snapshot file.
+	 * @return the number of loaded json web key sets.
+	 * @throws IOException
+	 *             in case the existing file could not be read.
+	 */
+	public int loadSnapshot(Path file) throws IOException {
+		assertNotNull(file, "file must not be null.");
+		if (!Files.isRegularFile(file)) {
+			return 0;
+		}
+		Instant lastModified = Files.getLastModifiedTime(file).toInstant();
+		Duration snapshotAge = Duration.between(lastModified, Instant.now());
+		if (snapshotAge.getSeconds() >= cacheValidityInSeconds + cacheGracePeriodInSeconds) {
+			LOGGER.info("Json web key snapshot {} is outdated and therefore ignored.", file);
+			return 0;
 		}
+		JSONObject snapshot;
+		try {
+			snapshot = new JSONObject(new String(Files.readAllBytes(file), UTF_8));
+		} catch (JSONException e) {
+			LOGGER.warn("Json web key snapshot {} could not be parsed: {}", file, e.getMessage());
+			return 0;
+		}
+		long retrievedAt = cacheTicker.read() - Math.max(snapshotAge.toNanos(), 0);
+		int loadedKeySets = 0;
+		for (String jwksUri : snapshot.keySet()) {
+			try {
+				URI uri = URI.create(jwksUri);
+				getCache().put(uri, createTokenKeys(snapshot.getJSONObject(jwksUri).toString(), retrievedAt));
+				getCache().refresh(uri);
+				loadedKeySets++;
+			} catch (IllegalArgumentException | JSONException | InvalidKeySpecException | NoSuchAlgorithmException e) {
+				LOGGER.warn("Json web keys of {} could not be loaded from snapshot {}: {}", jwksUri, file,
+						e.getMessage());
+			}
+		}
+		return loadedKeySets;
+	}
+
+	/**
+	 * Returns the statistics of the json web key cache, e.g. the number of hits and
+	 * loads.
+	 *
+	 * @return the cache statistics.
+	 */
+	public CacheStats getCacheStats() {
+		return cache != null ? cache.stats() : CacheStats.empty();
 	}
 
-	private Cache<String, PublicKey> getCache() {
+	/**
+	 * For testing only!
+	 */
+	OAuth2TokenKeyServiceWithCache withCacheTicker(Ticker ticker, Executor executor) {
+		this.cacheTicker = ticker;
+		this.cacheExecutor = executor;
+		return this;
+	}
+
+	private LoadingCache<URI, TokenKeys> getCache() {
 		if (cache == null) {
-			cache = Caffeine.newBuilder().expireAfterWrite(cacheValidityInSeconds, TimeUnit.SECONDS)
-					.maximumSize(cacheSize)
-					.build();
+			synchronized (this) { // all threads need to share the same cache
+				if (cache == null) {
+					cache = Caffeine.newBuilder()
+							.refreshAfterWrite(cacheValidityInSeconds, TimeUnit.SECONDS)
+							.expireAfter(new TokenKeysExpiry())
+							.maximumSize(cacheSize)
+							.recordStats()
+							.ticker(cacheTicker)
+							.executor(cacheExecutor)
+							.build(new TokenKeysLoader());
+				}
+			}
 		}
 		return cache;
 	}
@@ -149,14 +506,114 @@ public class OAuth2TokenKeyServiceWithCache {
 		return tokenKeyService;
 	}
 
+	/**
+	 * Removes all json web keys from the cache. <br>
+	 * Note: the instances that are used by the validators built with
+	 * {@link JwtValidatorBuilder} are shared (see {@link SharedCacheRegistry}),
+	 * i.e. this clears the keys of all validators that share this instance.
+	 */
 	public void clearCache() {
 		if (cache != null) {
 			cache.invalidateAll();
 		}
+		publicKeyInstances.invalidateAll();
+		keySetInstances.invalidateAll();
+		suppressedRefetchCounts.clear();
+		failedRefreshTimes.clear();
 	}
 
 	public static String getUniqueCacheKey(JwtSignatureAlgorithm keyAlgorithm, String keyId, URI jwksUri) {
-		return jwksUri + String.valueOf(JsonWebKeyImpl.calculateUniqueId(keyAlgorithm, keyId));
+		return jwksUri + getKeySetKey(keyAlgorithm, keyId);
+	}
+
+	private static String getKeySetKey(JwtSignatureAlgorithm keyAlgorithm, String keyId) {
+		return String.valueOf(JsonWebKeyImpl.calculateUniqueId(keyAlgorithm, keyId));
+	}
+
+	/**
+	 * The parsed json web key set, shared by all jwks URIs that provide the same
+	 * json.
+	 */
+	private static class KeySet {
+		@Nullable
+		final String json;
+		final Map<String, PublicKey> publicKeys;
+
+		KeySet(@Nullable String json, Map<String, PublicKey> publicKeys) {
+			this.json = json;
+			this.publicKeys = publicKeys;
+		}
+	}
+
+	private static class TokenKeys {
+		final KeySet keySet;
+		final long retrievedAt;
+
+		TokenKeys(KeySet keySet, long retrievedAt) {
+			this.keySet = keySet;
+			this.retrievedAt = retrievedAt;
+		}
+	}
+
+	/**
+	 * Expires the keys when the cache time plus the grace period have passed since
+	 * they were retrieved, also in case they were loaded from a snapshot.
+	 */
+	private class TokenKeysExpiry implements Expiry<URI, TokenKeys> {
+
+		@Override
+		public long expireAfterCreate(URI jwksUri, TokenKeys tokenKeys, long currentTime) {
+			long maxAgeInNanos = TimeUnit.SECONDS.toNanos(cacheValidityInSeconds + cacheGracePeriodInSeconds);
+			return Math.max(maxAgeInNanos - (currentTime - tokenKeys.retrievedAt), 0);
+		}
+
+		@Override
+		public long expireAfterUpdate(URI jwksUri, TokenKeys tokenKeys, long currentTime, long currentDuration) {
+			return expireAfterCreate(jwksUri, tokenKeys, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(URI jwksUri, TokenKeys tokenKeys, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+
+	private class TokenKeysLoader implements CacheLoader<URI, TokenKeys> {
+
+		@Override
+		public TokenKeys load(URI jwksUri) throws Exception {
+			return retrieveTokenKeys(jwksUri);
+		}
+
+		/**
+		 * Serves the outdated keys in case the refresh fails, they expire relative
+		 * to their retrieval nevertheless. The failure is not rethrown, as the cache
+		 * would log it again.
+		 */
+		@Override
+		public TokenKeys reload(URI jwksUri, TokenKeys tokenKeys) {
+			try {
+				return retrieveTokenKeys(jwksUri);
+			} catch (Exception e) {
+				failedRefreshTimes.put(jwksUri, cacheTicker.read());
+				LOGGER.warn("Json web keys could not be refreshed from {}, outdated keys are used: {}", jwksUri,
+						e.getMessage());
+				return tokenKeys;
+			}
+		}
+	}
+
+	private static class TokenKeyRetrievalException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		TokenKeyRetrievalException(Exception cause) {
+			super(cause);
+		}
+
+		@Override
+		public synchronized Exception getCause() {
+			return (Exception) super.getCause();
+		}
 	}
 
 }
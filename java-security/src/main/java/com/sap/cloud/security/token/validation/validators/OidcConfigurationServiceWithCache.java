@@ -5,10 +5,24 @@ import static com.sap.cloud.security.xsuaa.Assertions.assertNotNull;
 import javax.annotation.Nullable;
 
 import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 
-import com.github.benmanes.caffeine.cache.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.sap.cloud.security.xsuaa.client.DefaultOidcConfigurationService;
 import com.sap.cloud.security.xsuaa.client.OAuth2ServiceEndpointsProvider;
 import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
@@ -16,13 +30,24 @@ import com.sap.cloud.security.xsuaa.client.OidcConfigurationService;
 
 /**
  * Decorates {@link OidcConfigurationService} with a cache, which gets looked up
- * before the identity service is requested via http.
+ * before the identity service is requested via http. <br>
+ * Endpoints that are older than the cache time are refreshed in the
+ * background, while the cached endpoints are still served. In case the
+ * identity service is not available, the last known endpoints are served for a
+ * grace period and the refresh is retried after the refresh retry interval.
  */
 public class OidcConfigurationServiceWithCache {
+	private static final Logger LOGGER = LoggerFactory.getLogger(OidcConfigurationServiceWithCache.class);
+
 	private OidcConfigurationService oidcConfigurationService; // access via getter
-	private Cache<String, OAuth2ServiceEndpointsProvider> cache;
-	private long cacheValidityInSeconds = 600; // Revert after 15 Minutes
+	private volatile LoadingCache<URI, Endpoints> cache; // access via getter
+	private long cacheValidityInSeconds = 600; // refresh after 10 Minutes
+	private long cacheGracePeriodInSeconds = 3600; // served for 1 hour, if refresh fails
+	private long refreshRetryIntervalInSeconds = 30; // a failed refresh is retried after 30 seconds
 	private long cacheSize = 1000;
+	private final Map<URI, Long> failedRefreshTimes = new ConcurrentHashMap<>(); // by cache ticker
+	private Ticker cacheTicker = Ticker.systemTicker();
+	private Executor cacheExecutor = ForkJoinPool.commonPool();
 
 	private OidcConfigurationServiceWithCache() {
 		// use getInstance factory method
@@ -52,7 +77,8 @@ public class OidcConfigurationServiceWithCache {
 	}
 
 	/**
-	 * Caches the Json web keys. Overwrite the cache time (default: 900 seconds).
+	 * Caches the oidc configuration. Overwrite the cache time (default: 600
+	 * seconds). Afterwards the configuration gets refreshed in the background.
 	 *
 	 * @param timeInSeconds
 	 *            time to cache the signing keys
@@ -66,6 +92,41 @@ public class OidcConfigurationServiceWithCache {
 		return this;
 	}
 
+	/**
+	 * Overwrite the time the oidc configuration is still served after the cache
+	 * time has passed and it could not be refreshed, e.g. because the identity
+	 * service is not available (default: 3600 seconds).
+	 *
+	 * @param timeInSeconds
+	 *            time to serve the outdated configuration, 0 to disable
+	 * @return this
+	 */
+	public OidcConfigurationServiceWithCache withCacheGracePeriod(int timeInSeconds) {
+		if (timeInSeconds < 0) {
+			throw new IllegalArgumentException("The cache grace period must not be negative");
+		}
+		this.cacheGracePeriodInSeconds = timeInSeconds;
+		return this;
+	}
+
+	/**
+	 * Overwrite the minimum time after a failed refresh of an outdated
+	 * configuration, before the refresh is retried (default: 30 seconds). In the
+	 * meantime the outdated configuration is served without requesting the
+	 * identity service.
+	 *
+	 * @param timeInSeconds
+	 *            minimum time between two refresh attempts, 0 to disable
+	 * @return this
+	 */
+	public OidcConfigurationServiceWithCache withRefreshRetryInterval(int timeInSeconds) {
+		if (timeInSeconds < 0) {
+			throw new IllegalArgumentException("The refresh retry interval must not be negative");
+		}
+		this.refreshRetryIntervalInSeconds = timeInSeconds;
+		return this;
+	}
+
 	/**
 	 *
 	 * Caches the Json web keys. Overwrite the size of the cache (default: 100).
@@ -97,23 +158,97 @@ public class OidcConfigurationServiceWithCache {
 	public OAuth2ServiceEndpointsProvider getOrRetrieveEndpoints(URI discoveryEndpointUri)
 			throws OAuth2ServiceException {
 		assertNotNull(discoveryEndpointUri, "discoveryEndpointUri must not be null.");
-		String cacheKey = discoveryEndpointUri.toString();
-		OAuth2ServiceEndpointsProvider endpointsProvider = getCache().getIfPresent(cacheKey);
-		if (endpointsProvider == null) {
-			endpointsProvider = getOidcConfigurationService().retrieveEndpoints(discoveryEndpointUri);
-			if (endpointsProvider == null) {
-				return null;
+		Endpoints endpoints;
+		try {
+			endpoints = getCache().get(discoveryEndpointUri);
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof OAuth2ServiceException) {
+				throw (OAuth2ServiceException) e.getCause();
 			}
-			getCache().put(cacheKey, endpointsProvider);
+			throw e;
+		}
+		if (endpoints == null) {
+			return null;
+		}
+		retryFailedRefresh(discoveryEndpointUri);
+		return endpoints.endpointsProvider;
+	}
+
+	/**
+	 * Returns the cached endpoints without requesting the discovery endpoint.
+	 */
+	@Nullable
+	OAuth2ServiceEndpointsProvider getCachedEndpoints(URI discoveryEndpointUri) {
+		Endpoints endpoints = getCache().getIfPresent(discoveryEndpointUri);
+		return endpoints != null ? endpoints.endpointsProvider : null;
+	}
+
+	/**
+	 * Refreshes the outdated configuration in the background, in case the last
+	 * refresh failed at least the refresh retry interval ago. Only one of the
+	 * concurrent threads triggers the refresh.
+	 */
+	private void retryFailedRefresh(URI discoveryEndpointUri) {
+		Long failedRefreshTime = failedRefreshTimes.get(discoveryEndpointUri);
+		if (failedRefreshTime == null) {
+			return;
+		}
+		long now = cacheTicker.read();
+		if (now - failedRefreshTime >= TimeUnit.SECONDS.toNanos(refreshRetryIntervalInSeconds)
+				&& failedRefreshTimes.replace(discoveryEndpointUri, failedRefreshTime, now)) {
+			getCache().refresh(discoveryEndpointUri);
 		}
-		return getCache().getIfPresent(cacheKey);
 	}
 
-	private Cache<String, OAuth2ServiceEndpointsProvider> getCache() {
+	/**
+	 * Returns the age of the cached oidc configurations. Configurations that are
+	 * older than the cache time are outdated: they get refreshed in the
+	 * background and are served at most until the grace period has passed.
+	 *
+	 * @return the age of the cached configurations by discovery endpoint URI.
+	 */
+	public Map<URI, Duration> getCacheEntryAges() {
+		Map<URI, Duration> cacheEntryAges = new HashMap<>();
+		if (cache != null) {
+			cache.asMap().forEach((discoveryEndpointUri, endpoints) -> cacheEntryAges.put(discoveryEndpointUri,
+					Duration.ofMillis(TimeUnit.NANOSECONDS.toMillis(cacheTicker.read() - endpoints.retrievedAt))));
+		}
+		return cacheEntryAges;
+	}
+
+	/**
+	 * Returns the statistics of the oidc configuration cache, e.g. the number of hits and
+	 * loads.
+	 *
+	 * @return the cache statistics.
+	 */
+	public CacheStats getCacheStats() {
+		return cache != null ? cache.stats() : CacheStats.empty();
+	}
+
+	/**
+	 * For testing only!
+	 */
+	OidcConfigurationServiceWithCache withCacheTicker(Ticker ticker, Executor executor) {
+		this.cacheTicker = ticker;
+		this.cacheExecutor = executor;
+		return this;
+	}
+
+	private LoadingCache<URI, Endpoints> getCache() {
 		if (cache == null) {
-			cache = Caffeine.newBuilder().expireAfterWrite(cacheValidityInSeconds, TimeUnit.SECONDS)
-					.maximumSize(cacheSize)
-					.build();
+			synchronized (this) { // all threads need to share the same cache
+				if (cache == null) {
+					cache = Caffeine.newBuilder()
+							.refreshAfterWrite(cacheValidityInSeconds, TimeUnit.SECONDS)
+							.expireAfter(new EndpointsExpiry())
+							.maximumSize(cacheSize)
+							.recordStats()
+							.ticker(cacheTicker)
+							.executor(cacheExecutor)
+							.build(new EndpointsLoader());
+				}
+			}
 		}
 		return cache;
 	}
@@ -125,10 +260,82 @@ public class OidcConfigurationServiceWithCache {
 		return oidcConfigurationService;
 	}
 
+	/**
+	 * Removes all oidc configurations from the cache. <br>
+	 * Note: the instances that are used by the validators built with
+	 * {@link JwtValidatorBuilder} are shared (see {@link SharedCacheRegistry}),
+	 * i.e. this clears the configurations of all validators that share this
+	 * instance.
+	 */
 	public void clearCache() {
 		if (cache != null) {
 			cache.invalidateAll();
 		}
+		failedRefreshTimes.clear();
+	}
+
+	private static class Endpoints {
+		final OAuth2ServiceEndpointsProvider endpointsProvider;
+		final long retrievedAt;
+
+		Endpoints(OAuth2ServiceEndpointsProvider endpointsProvider, long retrievedAt) {
+			this.endpointsProvider = endpointsProvider;
+			this.retrievedAt = retrievedAt;
+		}
+	}
+
+	/**
+	 * Expires the configuration when the cache time plus the grace period have
+	 * passed since it was retrieved, also in case it could not be refreshed.
+	 */
+	private class EndpointsExpiry implements Expiry<URI, Endpoints> {
+
+		@Override
+		public long expireAfterCreate(URI discoveryEndpointUri, Endpoints endpoints, long currentTime) {
+			long maxAgeInNanos = TimeUnit.SECONDS.toNanos(cacheValidityInSeconds + cacheGracePeriodInSeconds);
+			return Math.max(maxAgeInNanos - (currentTime - endpoints.retrievedAt), 0);
+		}
+
+		@Override
+		public long expireAfterUpdate(URI discoveryEndpointUri, Endpoints endpoints, long currentTime,
+				long currentDuration) {
+			return expireAfterCreate(discoveryEndpointUri, endpoints, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(URI discoveryEndpointUri, Endpoints endpoints, long currentTime,
+				long currentDuration) {
+			return currentDuration;
+		}
+	}
+
+	private class EndpointsLoader implements CacheLoader<URI, Endpoints> {
+
+		@Override
+		@Nullable
+		public Endpoints load(URI discoveryEndpointUri) throws OAuth2ServiceException {
+			OAuth2ServiceEndpointsProvider endpointsProvider = getOidcConfigurationService()
+					.retrieveEndpoints(discoveryEndpointUri);
+			failedRefreshTimes.remove(discoveryEndpointUri);
+			return endpointsProvider != null ? new Endpoints(endpointsProvider, cacheTicker.read()) : null;
+		}
+
+		/**
+		 * Serves the outdated configuration in case the refresh fails, it expires
+		 * relative to its retrieval nevertheless. The failure is not rethrown, as
+		 * the cache would log it again.
+		 */
+		@Override
+		public Endpoints reload(URI discoveryEndpointUri, Endpoints endpoints) {
+			try {
+				return load(discoveryEndpointUri);
+			} catch (OAuth2ServiceException | RuntimeException e) {
+				failedRefreshTimes.put(discoveryEndpointUri, cacheTicker.read());
+				LOGGER.warn("Oidc configuration could not be refreshed from {}, outdated configuration is used: {}",
+						discoveryEndpointUri, e.getMessage());
+				return endpoints;
+			}
+		}
 	}
 
 }
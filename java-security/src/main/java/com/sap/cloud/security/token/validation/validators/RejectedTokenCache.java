@@ -0,0 +1,161 @@
+package com.sap.cloud.security.token.validation.validators;
+
+import static com.sap.cloud.security.xsuaa.Assertions.assertNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import javax.annotation.Nullable;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sap.cloud.security.token.validation.ValidationErrorCode;
+import com.sap.cloud.security.token.validation.ValidationResult;
+
+/**
+ * Remembers recently rejected tokens together with their
+ * {@link ValidationResult}, so that a token which is presented again (e.g. by
+ * a misconfigured client) is rejected without decoding, parsing and validating
+ * it again. <br>
+ * Only a SHA-256 digest of the token is kept, so the memory consumption does
+ * not depend on the size of the presented tokens. <br>
+ * Only permanent verdicts are remembered, e.g. an expired token or an invalid
+ * signature. Tokens that were rejected because of a transient failure, e.g.
+ * the keys could not be requested, the key id is not yet known during a key
+ * rotation or the token is not yet valid, are validated again.
+ */
+public class RejectedTokenCache {
+	private static final Set<ValidationErrorCode> PERMANENT_ERROR_CODES = EnumSet.of(
+			ValidationErrorCode.EXPIRED,
+			ValidationErrorCode.UNTRUSTED_ISSUER,
+			ValidationErrorCode.UNTRUSTED_AUDIENCE,
+			ValidationErrorCode.UNSUPPORTED_ALGORITHM,
+			ValidationErrorCode.INVALID_SIGNATURE,
+			ValidationErrorCode.MALFORMED_TOKEN);
+	private volatile Cache<String, ValidationResult> cache; // access via getter
+	private long cacheValidityInSeconds = 30;
+	private long cacheSize = 100;
+
+	private RejectedTokenCache() {
+		// use getInstance factory method
+	}
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @return the new instance.
+	 */
+	public static RejectedTokenCache getInstance() {
+		return new RejectedTokenCache();
+	}
+
+	/**
+	 * Overwrite the time a rejected token is remembered (default: 30 seconds).
+	 *
+	 * @param timeInSeconds
+	 *            time to cache the rejected tokens
+	 * @return this
+	 */
+	public RejectedTokenCache withCacheTime(int timeInSeconds) {
+		if (timeInSeconds <= 0) {
+			throw new IllegalArgumentException("The cache validity must be greater than 0 seconds");
+		}
+		this.cacheValidityInSeconds = timeInSeconds;
+		return this;
+	}
+
+	/**
+	 * Overwrite the maximum number of rejected tokens that are cached (default:
+	 * 100).
+	 *
+	 * @param size
+	 *            number of cached tokens.
+	 * @return this
+	 */
+	public RejectedTokenCache withCacheSize(int size) {
+		if (size <= 0) {
+			throw new IllegalArgumentException("The cache size must be greater than 0");
+		}
+		this.cacheSize = size;
+		return this;
+	}
+
+	/**
+	 * Returns the result of the last validation in case the token was rejected
+	 * recently.
+	 *
+	 * @param token
+	 *            the encoded token, e.g. the value of the {@code Authorization}
+	 *            header.
+	 * @return the invalid validation result or null in case the token is unknown.
+	 */
+	@Nullable
+	public ValidationResult getIfPresent(String token) {
+		return getCache().getIfPresent(digest(token));
+	}
+
+	/**
+	 * Remembers that the given token was rejected. Valid results and results with
+	 * a transient (or unspecified) {@link ValidationErrorCode} are ignored.
+	 *
+	 * @param token
+	 *            the encoded token, e.g. the value of the {@code Authorization}
+	 *            header.
+	 * @param validationResult
+	 *            the result of the token validation.
+	 */
+	public void put(String token, ValidationResult validationResult) {
+		assertNotNull(validationResult, "validationResult must not be null.");
+		if (validationResult.isErroneous() && PERMANENT_ERROR_CODES.contains(validationResult.getErrorCode())) {
+			getCache().put(digest(token), validationResult);
+		}
+	}
+
+	/**
+	 * Returns the number of times a rejected token was found in the cache.
+	 *
+	 * @return the hit count.
+	 */
+	public long getHitCount() {
+		return getCache().stats().hitCount();
+	}
+
+	/**
+	 * Removes all rejected tokens from the cache.
+	 */
+	public void clearCache() {
+		Cache<String, ValidationResult> currentCache = cache;
+		if (currentCache != null) {
+			currentCache.invalidateAll();
+		}
+	}
+
+	private Cache<String, ValidationResult> getCache() {
+		if (cache == null) {
+			synchronized (this) { // all threads need to share the same cache
+				if (cache == null) {
+					cache = Caffeine.newBuilder().expireAfterWrite(cacheValidityInSeconds, TimeUnit.SECONDS)
+							.maximumSize(cacheSize)
+							.recordStats()
+							.build();
+				}
+			}
+		}
+		return cache;
+	}
+
+	private static String digest(String token) {
+		assertNotNull(token, "token must not be null.");
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(UTF_8));
+			return Base64.getEncoder().encodeToString(digest);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported by the Java platform.", e);
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package com.sap.cloud.security.token.validation.validators;
+
+import javax.annotation.Nullable;
+
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sap.cloud.security.xsuaa.client.OAuth2TokenKeyService;
+import com.sap.cloud.security.xsuaa.client.OidcConfigurationService;
+
+/**
+ * Shares the {@link OAuth2TokenKeyServiceWithCache} and
+ * {@link OidcConfigurationServiceWithCache} instances within the process, so
+ * that all validators built by {@link JwtValidatorBuilder} (and therefore the
+ * token authenticators and the spring adapter) use the same caches with one
+ * eviction policy, instead of requesting and caching the same json web keys
+ * again. <br>
+ * Validators that are configured with the same http client, rest template or
+ * the same (custom) service share the same cache instance. The registry
+ * references the keys and the cache instances weakly: a cache instance is
+ * removed from the registry as soon as it is garbage collected, i.e. when no
+ * builder or validator uses it anymore.
+ */
+public class SharedCacheRegistry {
+	private static final Object DEFAULT = new Object();
+	private static final SharedCacheRegistry INSTANCE = new SharedCacheRegistry();
+	private final Cache<Object, OAuth2TokenKeyServiceWithCache> tokenKeyServices = createRegistry();
+	private final Cache<Object, OidcConfigurationServiceWithCache> oidcConfigurationServices = createRegistry();
+
+	/**
+	 * For testing only!
+	 */
+	SharedCacheRegistry() {
+		// use getInstance factory method
+	}
+
+	/**
+	 * Returns the registry that is shared within the process.
+	 *
+	 * @return the shared instance
+	 */
+	public static SharedCacheRegistry getInstance() {
+		return INSTANCE;
+	}
+
+	private static <T> Cache<Object, T> createRegistry() {
+		// keys are compared by identity
+		return Caffeine.newBuilder().weakKeys().weakValues().executor(Runnable::run).build();
+	}
+
+	/**
+	 * Returns the shared token key service cache for the given key. The caller
+	 * must keep a reference to the returned cache as long as it uses it.
+	 *
+	 * @param key
+	 *            the http client, the rest template or the token key service the
+	 *            cache is shared for, null for the default
+	 * @param tokenKeyService
+	 *            provides the token key service, in case the cache does not exist
+	 *            yet, null for the default
+	 * @return the shared cache
+	 */
+	OAuth2TokenKeyServiceWithCache acquireTokenKeyService(@Nullable Object key,
+			Supplier<OAuth2TokenKeyService> tokenKeyService) {
+		return tokenKeyServices.get(key != null ? key : DEFAULT,
+				k -> OAuth2TokenKeyServiceWithCache.getInstance().withTokenKeyService(tokenKeyService.get()));
+	}
+
+	/**
+	 * Returns the shared oidc configuration service cache for the given key. The
+	 * caller must keep a reference to the returned cache as long as it uses it.
+	 *
+	 * @param key
+	 *            the http client, the rest template or the oidc configuration
+	 *            service the cache is shared for, null for the default
+	 * @param oidcConfigurationService
+	 *            provides the oidc configuration service, in case the cache does
+	 *            not exist yet, null for the default
+	 * @return the shared cache
+	 */
+	OidcConfigurationServiceWithCache acquireOidcConfigurationService(@Nullable Object key,
+			Supplier<OidcConfigurationService> oidcConfigurationService) {
+		return oidcConfigurationServices.get(key != null ? key : DEFAULT,
+				k -> OidcConfigurationServiceWithCache.getInstance()
+						.withOidcConfigurationService(oidcConfigurationService.get()));
+	}
+
+	/**
+	 * Returns the statistics of all shared token key service caches, that are
+	 * still in use.
+	 *
+	 * @return the combined cache statistics.
+	 */
+	public CacheStats getTokenKeyCacheStats() {
+		return tokenKeyServices.asMap().values().stream()
+				.map(OAuth2TokenKeyServiceWithCache::getCacheStats)
+				.reduce(CacheStats.empty(), CacheStats::plus);
+	}
+
+	/**
+	 * Returns the statistics of all shared oidc configuration service caches,
+	 * that are still in use.
+	 *
+	 * @return the combined cache statistics.
+	 */
+	public CacheStats getOidcConfigurationCacheStats() {
+		return oidcConfigurationServices.asMap().values().stream()
+				.map(OidcConfigurationServiceWithCache::getCacheStats)
+				.reduce(CacheStats.empty(), CacheStats::plus);
+	}
+
+	/**
+	 * Returns the number of shared cache instances.
+	 *
+	 * @return the number of token key service and oidc configuration service
+	 *         caches.
+	 */
+	public int size() {
+		tokenKeyServices.cleanUp();
+		oidcConfigurationServices.cleanUp();
+		return (int) (tokenKeyServices.estimatedSize() + oidcConfigurationServices.estimatedSize());
+	}
+}
@@ -0,0 +1,155 @@
+package com.sap.cloud.security.token.validation.validators;
+
+import static com.sap.cloud.security.xsuaa.Assertions.assertNotNull;
+
+import javax.annotation.Nullable;
+
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Remembers the tokens whose signature was successfully verified by the
+ * {@link JwtSignatureValidator}, so that a token which is presented again
+ * within its lifetime does not need to be verified again. <br>
+ * Each entry expires at the expiration ({@code exp}) of the token. An entry is
+ * only considered as long as the public key it was verified with is still the
+ * one provided by {@link OAuth2TokenKeyServiceWithCache}: as soon as the key
+ * cache is cleared or the key has changed, the token gets verified again.
+ */
+public class VerifiedTokenCache {
+	private final Supplier<Instant> timeProvider;
+	private volatile Cache<String, VerifiedToken> cache; // access via getter
+	private long cacheSize = 1000;
+
+	private VerifiedTokenCache() {
+		this(Instant::now);
+	}
+
+	/**
+	 * For testing only!
+	 */
+	VerifiedTokenCache(Supplier<Instant> timeProvider) {
+		this.timeProvider = timeProvider;
+	}
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @return the new instance.
+	 */
+	public static VerifiedTokenCache getInstance() {
+		return new VerifiedTokenCache();
+	}
+
+	/**
+	 * Overwrite the maximum number of verified tokens that are cached (default:
+	 * 1000).
+	 *
+	 * @param size
+	 *            number of cached tokens.
+	 * @return this
+	 */
+	public VerifiedTokenCache withCacheSize(int size) {
+		if (size <= 0) {
+			throw new IllegalArgumentException("The cache size must be greater than 0");
+		}
+		this.cacheSize = size;
+		return this;
+	}
+
+	/**
+	 * Checks whether the signature of the given token was already verified with
+	 * the given public key.
+	 *
+	 * @param token
+	 *            the encoded token.
+	 * @param publicKey
+	 *            the public key the token signature must be verified with.
+	 * @return true if the token was already verified with exactly this key.
+	 */
+	boolean isVerified(String token, PublicKey publicKey) {
+		VerifiedToken verifiedToken = getCache().getIfPresent(token);
+		return verifiedToken != null && verifiedToken.publicKey == publicKey;
+	}
+
+	/**
+	 * Remembers that the signature of the given token was successfully verified
+	 * with the given public key. Tokens without expiration or those that are
+	 * already expired are not cached.
+	 *
+	 * @param token
+	 *            the encoded token.
+	 * @param publicKey
+	 *            the public key the token signature was verified with.
+	 * @param expiration
+	 *            the expiration of the token.
+	 */
+	void put(String token, PublicKey publicKey, @Nullable Instant expiration) {
+		assertNotNull(publicKey, "publicKey must not be null.");
+		if (expiration != null && expiration.isAfter(timeProvider.get())) {
+			getCache().put(token, new VerifiedToken(publicKey, expiration));
+		}
+	}
+
+	/**
+	 * Removes all verified tokens from the cache.
+	 */
+	public void clearCache() {
+		Cache<String, VerifiedToken> currentCache = cache;
+		if (currentCache != null) {
+			currentCache.invalidateAll();
+		}
+	}
+
+	private Cache<String, VerifiedToken> getCache() {
+		if (cache == null) {
+			synchronized (this) { // all threads need to share the same cache
+				if (cache == null) {
+					cache = Caffeine.newBuilder()
+							.expireAfter(new ExpireAtTokenExpiration())
+							.maximumSize(cacheSize)
+							.build();
+				}
+			}
+		}
+		return cache;
+	}
+
+	private static class VerifiedToken {
+		final PublicKey publicKey;
+		final Instant expiration;
+
+		VerifiedToken(PublicKey publicKey, Instant expiration) {
+			this.publicKey = publicKey;
+			this.expiration = expiration;
+		}
+	}
+
+	private class ExpireAtTokenExpiration implements Expiry<String, VerifiedToken> {
+
+		@Override
+		public long expireAfterCreate(String token, VerifiedToken verifiedToken, long currentTime) {
+			long secondsUntilExpiration = Duration.between(timeProvider.get(), verifiedToken.expiration).getSeconds();
+			return TimeUnit.SECONDS.toNanos(Math.max(0, secondsUntilExpiration));
+		}
+
+		@Override
+		public long expireAfterUpdate(String token, VerifiedToken verifiedToken, long currentTime,
+				long currentDuration) {
+			return expireAfterCreate(token, verifiedToken, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String token, VerifiedToken verifiedToken, long currentTime,
+				long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
@@ -9,9 +9,12 @@ import java.net.URISyntaxException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.sap.cloud.security.config.OAuth2ServiceConfiguration;
 import com.sap.cloud.security.token.Token;
 import com.sap.cloud.security.token.TokenHeader;
+import com.sap.cloud.security.token.validation.ValidationErrorCode;
 import com.sap.cloud.security.token.validation.ValidationResult;
 import com.sap.cloud.security.token.validation.Validator;
 
@@ -21,7 +24,15 @@ import com.sap.cloud.security.token.validation.Validator;
  * must match the identity service domain.
  */
 public class XsuaaJwtIssuerValidator implements Validator<Token> {
+	private static final int JKU_CACHE_SIZE = 1000;
 	private final String domain;
+	/**
+	 * The trust verdicts per jku, the number of distinct jkus is bounded by the
+	 * number of tenants.
+	 */
+	private final Cache<String, Boolean> trustedTokenKeyUrls = Caffeine.newBuilder()
+			.maximumSize(JKU_CACHE_SIZE)
+			.build();
 	protected final Logger logger = LoggerFactory.getLogger(getClass());
 
 	/**
@@ -40,25 +51,31 @@ public class XsuaaJwtIssuerValidator implements Validator<Token> {
 		String tokenKeyUrl = token.getHeaderParameterAsString(TokenHeader.JWKS_URL);
 		if (tokenKeyUrl == null || tokenKeyUrl.trim().isEmpty()) {
 			return createInvalid(
+					ValidationErrorCode.UNTRUSTED_ISSUER,
 					"Issuer validation can not be performed because Jwt token does not contain 'jku' header parameter.");
 		}
 		return matchesTokenKeyUrlDomain(tokenKeyUrl);
 	}
 
 	private ValidationResult matchesTokenKeyUrlDomain(String tokenKeyUrl) {
-		URI jkuUri;
+		if (trustedTokenKeyUrls.get(tokenKeyUrl, this::isTrusted)) {
+			return createValid();
+		}
+		return createInvalid(
+				ValidationErrorCode.UNTRUSTED_ISSUER,
+				"Issuer is not trusted because 'jku' '{}' does not match uaa domain '{}' of the identity service.",
+				tokenKeyUrl, domain);
+	}
+
+	private boolean isTrusted(String tokenKeyUrl) {
 		try {
-			jkuUri = new URI(tokenKeyUrl);
-			if (jkuUri.getHost() != null && jkuUri.getHost().endsWith(domain)) {
-				return createValid();
-			}
+			URI jkuUri = new URI(tokenKeyUrl);
+			return jkuUri.getHost() != null && jkuUri.getHost().endsWith(domain);
 		} catch (URISyntaxException e) {
 			logger.error("Error: 'jku' header parameter '{}' does not provide a valid URI: {}.", tokenKeyUrl,
 					e.getMessage(), e);
+			return false;
 		}
-		return createInvalid(
-				"Issuer is not trusted because 'jku' '{}' does not match uaa domain '{}' of the identity service.",
-				tokenKeyUrl, domain);
 	}
 
 	@Override
@@ -5,9 +5,13 @@ import com.sap.cloud.security.config.OAuth2ServiceConfigurationBuilder;
 import com.sap.cloud.security.config.Service;
 import com.sap.cloud.security.config.cf.CFConstants;
 import com.sap.cloud.security.token.SecurityContext;
+import com.sap.cloud.security.token.Token;
 import com.sap.cloud.security.token.validation.CombiningValidator;
+import com.sap.cloud.security.token.validation.ValidationErrorCode;
 import com.sap.cloud.security.token.validation.ValidationResults;
+import com.sap.cloud.security.token.validation.Validator;
 import com.sap.cloud.security.token.validation.validators.JwtValidatorBuilder;
+import com.sap.cloud.security.token.validation.validators.RejectedTokenCache;
 import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
@@ -24,6 +28,7 @@ import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
@@ -113,6 +118,50 @@ public class SAPOfflineTokenServicesCloudTest {
 		assertThat(SecurityContext.getToken()).isNull();
 	}
 
+	@Test
+	public void loadAuthentication_rejectedTokenCache_tokenIsValidatedOnce() {
+		Validator<Token> validatorMock = Mockito.mock(Validator.class);
+		when(validatorMock.validate(any()))
+				.thenReturn(ValidationResults.createInvalid(ValidationErrorCode.EXPIRED, "Jwt expired"));
+		when(jwtValidatorBuilderMock.build()).thenReturn(new CombiningValidator<>(validatorMock));
+		cut.withRejectedTokenCache(RejectedTokenCache.getInstance());
+		cut.afterPropertiesSet();
+
+		assertThatThrownBy(() -> cut.loadAuthentication(xsuaaToken)).isInstanceOf(InvalidTokenException.class)
+				.hasMessage("Jwt expired");
+		assertThatThrownBy(() -> cut.loadAuthentication(xsuaaToken)).isInstanceOf(InvalidTokenException.class)
+				.hasMessage("Jwt expired");
+
+		Mockito.verify(validatorMock, times(1)).validate(any());
+	}
+
+	@Test
+	public void loadAuthentication_rejectedTokenCache_transientFailureIsValidatedAgain() {
+		Validator<Token> validatorMock = Mockito.mock(Validator.class);
+		when(validatorMock.validate(any()))
+				.thenReturn(ValidationResults.createInvalid(ValidationErrorCode.KEY_RETRIEVAL_FAILED, "no keys"));
+		when(jwtValidatorBuilderMock.build()).thenReturn(new CombiningValidator<>(validatorMock));
+		cut.withRejectedTokenCache(RejectedTokenCache.getInstance());
+		cut.afterPropertiesSet();
+
+		assertThatThrownBy(() -> cut.loadAuthentication(xsuaaToken)).isInstanceOf(InvalidTokenException.class);
+		assertThatThrownBy(() -> cut.loadAuthentication(xsuaaToken)).isInstanceOf(InvalidTokenException.class);
+
+		Mockito.verify(validatorMock, times(2)).validate(any());
+	}
+
+	@Test
+	public void loadAuthentication_rejectedTokenCache_malformedTokenIsCached() {
+		RejectedTokenCache rejectedTokenCache = RejectedTokenCache.getInstance();
+		cut.withRejectedTokenCache(rejectedTokenCache);
+		cut.afterPropertiesSet();
+
+		assertThatThrownBy(() -> cut.loadAuthentication("not-a-jwt")).isInstanceOf(InvalidTokenException.class);
+		assertThatThrownBy(() -> cut.loadAuthentication("not-a-jwt")).isInstanceOf(InvalidTokenException.class);
+
+		assertThat(rejectedTokenCache.getHitCount()).isEqualTo(1);
+	}
+
 	@Test
 	public void createInstanceWithEmptyConfiguration_throwsException() {
 		cut = new SAPOfflineTokenServicesCloud(Mockito.mock(OAuth2ServiceConfiguration.class));
@@ -175,6 +175,58 @@ public class DefaultJsonObjectTest {
 		assertThatThrownBy(() -> cut.getJsonObjects(KEY_1)).isInstanceOf(JsonParsingException.class);
 	}
 
+	@Test
+	public void strictJson_valuesAreParsedOnAccess() {
+		cut = new DefaultJsonObject("{\"string\": \"a \\\"quoted\\\" text\", \"number\": 1554076800, "
+				+ "\"list\": " + STRING_LIST_VALUE + ", \"object\": " + MAP_OBJECT + ", \"null\": null}");
+
+		assertThat(cut.contains("null")).isTrue();
+		assertThat(cut.getAsString("string")).isEqualTo("a \"quoted\" text");
+		assertThat(cut.getAsInstant("number")).isEqualTo(FIRST_OF_APRIL);
+		assertThat(cut.getAsList("list", String.class)).containsExactly("a", "b", "c");
+		assertThat(cut.getJsonObject("object").getAsString("key2")).isEqualTo("value2");
+		assertThat(cut.getKeyValueMap()).containsOnlyKeys("string");
+		assertThatThrownBy(() -> cut.getAsString("null")).isInstanceOf(JsonParsingException.class)
+				.hasMessage("JSONObject[\"null\"] is not a string.");
+	}
+
+	@Test
+	public void nestedObjects_areViewsOnParsedValue() {
+		cut = new DefaultJsonObject("{\"ext_attr\": {\"enhancer\": \"XSUAA\", \"nested\": {\"key\": \"value\"}}, "
+				+ "\"list\": [{\"key\": \"value1\"}, {\"key\": \"value2\"}]}");
+
+		JsonObject extAttr = cut.getJsonObject("ext_attr");
+		assertThat(extAttr.getAsString("enhancer")).isEqualTo("XSUAA");
+		assertThat(extAttr.getJsonObject("nested").getAsString("key")).isEqualTo("value");
+		assertThat(extAttr.getJsonObject("nested").asJsonString()).isEqualTo("{\"key\":\"value\"}");
+		assertThat(cut.getJsonObjects("list")).extracting(jsonObject -> jsonObject.getAsString("key"))
+				.containsExactly("value1", "value2");
+	}
+
+	@Test
+	public void createWithMalformedNestedValue_throwsException() {
+		assertThatThrownBy(() -> new DefaultJsonObject("{\"key\": \"value\", \"malformed\": {\"a\" 1}}"))
+				.isInstanceOf(JsonParsingException.class);
+		assertThatThrownBy(() -> new DefaultJsonObject("{\"key\": \"value\", \"malformed\": [1, {]}"))
+				.isInstanceOf(JsonParsingException.class);
+		assertThatThrownBy(() -> new DefaultJsonObject("{\"key\": \"value\", \"malformed\": \"\\x\"}"))
+				.isInstanceOf(JsonParsingException.class);
+	}
+
+	@Test
+	public void createWithNonStrictJson_isParsedAsBefore() {
+		cut = new DefaultJsonObject("{\"key\": 'value', \"nested\": {unquoted: 'nested value'}}");
+
+		assertThat(cut.getAsString("key")).isEqualTo("value");
+		assertThat(cut.getJsonObject("nested").getAsString("unquoted")).isEqualTo("nested value");
+	}
+
+	@Test
+	public void createWithUnterminatedObject_throwsException() {
+		assertThatThrownBy(() -> new DefaultJsonObject("{\"key\": \"value\""))
+				.isInstanceOf(JsonParsingException.class);
+	}
+
 	private DefaultJsonObject createJsonParser(String key, Object value) {
 		String jsonString = createJsonObjectString(key, value);
 		return new DefaultJsonObject(jsonString);
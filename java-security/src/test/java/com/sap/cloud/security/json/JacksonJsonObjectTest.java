@@ -0,0 +1,88 @@
+package com.sap.cloud.security.json;
+
+import com.sap.cloud.security.xsuaa.jwt.Base64JwtDecoder;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JacksonJsonObjectTest {
+
+	private static final String JSON = "{\"string\": \"a \\\"quoted\\\" text\", \"number\": 1554076800, "
+			+ "\"list\": [\"a\", \"b\"], \"objects\": [{\"key\": \"value\"}], \"object\": {\"key\": \"value\"}, "
+			+ "\"null\": null, \"decimal\": 1.5, \"flag\": true}";
+
+	private final JacksonJsonObjectProvider provider;
+	private final JsonObject cut;
+
+	public JacksonJsonObjectTest() throws ClassNotFoundException {
+		provider = new JacksonJsonObjectProvider();
+		cut = new DefaultJsonObject(JSON, provider);
+	}
+
+	@Test
+	public void getValues() {
+		assertThat(cut.contains("null")).isTrue();
+		assertThat(cut.contains("doesNotExist")).isFalse();
+		assertThat(cut.isEmpty()).isFalse();
+		assertThat(cut.getAsString("string")).isEqualTo("a \"quoted\" text");
+		assertThat(cut.getAsString("doesNotExist")).isNull();
+		assertThat(cut.getAsInstant("number")).isEqualTo(Instant.ofEpochSecond(1554076800));
+		assertThat(cut.getAsList("list", String.class)).containsExactly("a", "b");
+		assertThat(cut.getAsList("doesNotExist", String.class)).isEmpty();
+		assertThat(cut.getJsonObject("object").getAsString("key")).isEqualTo("value");
+		assertThat(cut.getJsonObjects("objects")).hasSize(1);
+		assertThat(cut.getKeyValueMap()).containsOnlyKeys("string");
+	}
+
+	@Test
+	public void wrongType_throwsException() {
+		assertThatThrownBy(() -> cut.getAsString("number")).isInstanceOf(JsonParsingException.class)
+				.hasMessage("JSONObject[\"number\"] is not a string.");
+		assertThatThrownBy(() -> cut.getAsString("null")).isInstanceOf(JsonParsingException.class);
+		assertThatThrownBy(() -> cut.getAsInstant("list")).isInstanceOf(JsonParsingException.class);
+		assertThatThrownBy(() -> cut.getAsList("list", Integer.class)).isInstanceOf(JsonParsingException.class);
+		assertThatThrownBy(() -> cut.getJsonObject("string")).isInstanceOf(JsonParsingException.class);
+		assertThatThrownBy(() -> cut.getJsonObjects("list")).isInstanceOf(JsonParsingException.class);
+		assertThatThrownBy(() -> cut.getJsonObjects("object")).isInstanceOf(JsonParsingException.class);
+	}
+
+	@Test
+	public void malformedJson_throwsException() {
+		assertThatThrownBy(() -> provider.create("")).isInstanceOf(JsonParsingException.class);
+		assertThatThrownBy(() -> provider.create("[]")).isInstanceOf(JsonParsingException.class);
+		assertThatThrownBy(() -> provider.create("{\"key\": 1")).isInstanceOf(JsonParsingException.class);
+		assertThatThrownBy(() -> provider.create("{\"key\": 1} {}")).isInstanceOf(JsonParsingException.class);
+		assertThatThrownBy(() -> provider.create("{\"key\": 1, \"key\": 2}"))
+				.isInstanceOf(JsonParsingException.class);
+	}
+
+	@Test
+	public void asJsonString_isParsedToSameContent() {
+		JsonObject jsonObject = provider.create(cut.asJsonString());
+
+		assertThat(jsonObject.asJsonString()).isEqualTo(cut.asJsonString());
+		assertThat(new OrgJsonObjectProvider().create(cut.asJsonString()).getAsString("string"))
+				.isEqualTo("a \"quoted\" text");
+	}
+
+	@Test
+	public void tokenPayload_sameResultAsDefaultProvider() throws IOException {
+		String payload = Base64JwtDecoder.getInstance()
+				.decode(IOUtils.resourceToString("/xsuaaUserInfoAdapterToken.txt", StandardCharsets.UTF_8))
+				.getPayload();
+		JsonObject jackson = provider.create(payload);
+		JsonObject orgJson = new OrgJsonObjectProvider().create(payload);
+
+		assertThat(jackson.getKeyValueMap()).isEqualTo(orgJson.getKeyValueMap());
+		assertThat(jackson.getAsList("scope", String.class)).isEqualTo(orgJson.getAsList("scope", String.class));
+		assertThat(jackson.getAsInstant("exp")).isEqualTo(orgJson.getAsInstant("exp"));
+		assertThat(jackson.getJsonObject("xs.user.attributes").getAsList("usrAttr", String.class))
+				.containsExactly("test");
+	}
+}
@@ -0,0 +1,25 @@
+package com.sap.cloud.security.json;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsonObjectProvidersTest {
+
+	@Test
+	public void select_default_isOrgJson() {
+		assertThat(JsonObjectProviders.select(null)).isInstanceOf(OrgJsonObjectProvider.class);
+		assertThat(JsonObjectProviders.getProvider()).isInstanceOf(OrgJsonObjectProvider.class);
+	}
+
+	@Test
+	public void select_byName() {
+		assertThat(JsonObjectProviders.select("jackson")).isInstanceOf(JacksonJsonObjectProvider.class);
+		assertThat(JsonObjectProviders.select("org.json")).isInstanceOf(OrgJsonObjectProvider.class);
+	}
+
+	@Test
+	public void select_unknownName_fallsBackToDefault() {
+		assertThat(JsonObjectProviders.select("unknown")).isInstanceOf(OrgJsonObjectProvider.class);
+	}
+}
@@ -7,6 +7,7 @@ import com.sap.cloud.security.config.cf.CFConstants;
 import com.sap.cloud.security.token.SecurityContext;
 import com.sap.cloud.security.token.XsuaaToken;
 import com.sap.cloud.security.token.validation.ValidationListener;
+import com.sap.cloud.security.token.validation.validators.RejectedTokenCache;
 import com.sap.cloud.security.util.HttpClientTestFactory;
 import com.sap.cloud.security.xsuaa.http.HttpHeaders;
 import org.apache.commons.io.IOUtils;
@@ -140,6 +141,36 @@ public class XsuaaTokenAuthenticatorTest {
 		Mockito.verifyNoMoreInteractions(validationListener2);
 	}
 
+	@Test
+	public void validateRequest_rejectedTokenCache_invalidTokenIsValidatedOnce() {
+		HttpServletRequest httpRequest = createRequestWithToken(invalidSignatureToken.getTokenValue());
+		ValidationListener validationListener = Mockito.mock(ValidationListener.class);
+		RejectedTokenCache rejectedTokenCache = RejectedTokenCache.getInstance();
+
+		cut.withRejectedTokenCache(rejectedTokenCache).withValidationListener(validationListener);
+		TokenAuthenticationResult firstResponse = cut.validateRequest(httpRequest, HTTP_RESPONSE);
+		TokenAuthenticationResult secondResponse = cut.validateRequest(httpRequest, HTTP_RESPONSE);
+
+		assertThat(secondResponse.isAuthenticated()).isFalse();
+		assertThat(secondResponse.getUnauthenticatedReason()).isEqualTo(firstResponse.getUnauthenticatedReason());
+		assertThat(rejectedTokenCache.getHitCount()).isEqualTo(1);
+		Mockito.verify(validationListener, times(1)).onValidationError(any());
+	}
+
+	@Test
+	public void validateRequest_rejectedTokenCache_malformedTokenIsCached() {
+		HttpServletRequest httpRequest = createRequestWithToken("not-a-jwt");
+		RejectedTokenCache rejectedTokenCache = RejectedTokenCache.getInstance();
+
+		cut.withRejectedTokenCache(rejectedTokenCache);
+		TokenAuthenticationResult firstResponse = cut.validateRequest(httpRequest, HTTP_RESPONSE);
+		TokenAuthenticationResult secondResponse = cut.validateRequest(httpRequest, HTTP_RESPONSE);
+
+		assertThat(firstResponse.isAuthenticated()).isFalse();
+		assertThat(secondResponse.getUnauthenticatedReason()).isEqualTo(firstResponse.getUnauthenticatedReason());
+		assertThat(rejectedTokenCache.getHitCount()).isEqualTo(1);
+	}
+
 	private HttpServletRequest createRequestWithoutToken() {
 		return Mockito.mock(HttpServletRequest.class);
 	}
@@ -3,6 +3,8 @@ package com.sap.cloud.security.token;
 import com.sap.cloud.security.config.Service;
 import com.sap.cloud.security.json.JsonObject;
 import com.sap.cloud.security.json.JsonParsingException;
+import com.sap.cloud.security.xsuaa.jwt.Base64JwtDecoder;
+import com.sap.cloud.security.xsuaa.jwt.DecodedJwt;
 import org.apache.commons.io.IOUtils;
 import org.junit.Test;
 
@@ -11,6 +13,7 @@ import java.nio.charset.StandardCharsets;
 import java.security.Principal;
 import java.time.Instant;
 import java.util.Collections;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -36,6 +39,53 @@ public class AbstractTokenTest {
 		};
 	}
 
+	@Test
+	public void typedClaims_areMemoized() {
+		assertThat(cut.getExpiration()).isSameAs(cut.getExpiration());
+		assertThat(cut.getNotBefore()).isSameAs(cut.getNotBefore());
+	}
+
+	@Test
+	public void getAudiences_returnsSetOwnedByCaller() {
+		Set<String> audiences = cut.getAudiences();
+		audiences.add("other");
+
+		assertThat(cut.getAudiences()).containsExactly("uaa", "sap_osb");
+	}
+
+	@Test
+	public void tokenWithExpirationFarInTheFuture_isNotExpired() {
+		AbstractToken farFuture = new MockTokenBuilder().withExpiration(Instant.MAX).build();
+		when(farFuture.isExpired()).thenCallRealMethod();
+
+		assertThat(farFuture.isExpired()).isFalse();
+	}
+
+	@Test
+	public void getSegments_carriesSegmentsOfDecodedJwt() {
+		DecodedJwt decodedJwt = Base64JwtDecoder.getInstance().decode(jwtString);
+		AbstractToken token = new XsuaaToken(decodedJwt);
+
+		assertThat(token.getSegments()).isSameAs(decodedJwt.getSegments());
+		assertThat(((AbstractToken) cut).getSegments()).isSameAs(((AbstractToken) cut).getSegments());
+	}
+
+	@Test
+	public void createWithMalformedClaim_throwsException() {
+		assertThatThrownBy(() -> new AbstractToken("{\"alg\": \"RS256\"}", "{\"ext_attr\": {\"enhancer\" \"XSUAA\"}}",
+				jwtString) {
+			@Override
+			public Principal getPrincipal() {
+				return null;
+			}
+
+			@Override
+			public Service getService() {
+				return null;
+			}
+		}).isInstanceOf(JsonParsingException.class);
+	}
+
 	@Test
 	public void getHeaderParameterAsString() {
 		assertThat(cut.getHeaderParameterAsString("alg")).isEqualTo("RS256");
@@ -0,0 +1,76 @@
+package com.sap.cloud.security.token;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ScopeRegistryTest {
+
+	private final XsuaaToken token; // scopes: ROLE_SERVICEBROKER, uaa.resource
+	private final ScopeRegistry cut = ScopeRegistry.of("uaa.resource", "ROLE_SERVICEBROKER", "uaa.admin");
+
+	public ScopeRegistryTest() throws IOException {
+		token = new XsuaaToken(IOUtils.resourceToString("/xsuaaCCAccessTokenRSA256.txt", UTF_8));
+	}
+
+	@Test
+	public void getId() {
+		assertThat(cut.getId("uaa.resource")).isEqualTo(0);
+		assertThat(cut.getId("uaa.admin")).isEqualTo(2);
+		assertThat(cut.getId("unknown")).isEqualTo(-1);
+		assertThat(cut.size()).isEqualTo(3);
+	}
+
+	@Test
+	public void of_invalidScope_raisesIllegalArgumentException() {
+		assertThatThrownBy(() -> ScopeRegistry.of("uaa.resource", null))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void getScopeIds() {
+		assertThat(token.getScopeIds(cut).stream()).containsExactly(0, 1);
+	}
+
+	@Test
+	public void hasAllScopes() {
+		assertThat(token.hasAllScopes(cut.mask("uaa.resource", "ROLE_SERVICEBROKER"))).isTrue();
+		assertThat(token.hasAllScopes(cut.mask())).isTrue();
+		assertThat(token.hasAllScopes(cut.mask("uaa.resource", "uaa.admin"))).isFalse();
+	}
+
+	@Test
+	public void hasAnyScope() {
+		assertThat(token.hasAnyScope(cut.mask("uaa.admin", "uaa.resource"))).isTrue();
+		assertThat(token.hasAnyScope(cut.mask("uaa.admin"))).isFalse();
+		assertThat(token.hasAnyScope(cut.mask())).isFalse();
+	}
+
+	@Test
+	public void unknownScopes_areCheckedByName() {
+		ScopeRegistry registry = ScopeRegistry.of("uaa.admin");
+
+		assertThat(token.hasAllScopes(registry.mask("uaa.resource", "ROLE_SERVICEBROKER"))).isTrue();
+		assertThat(token.hasAllScopes(registry.mask("uaa.resource", "unknown"))).isFalse();
+		assertThat(token.hasAnyScope(registry.mask("uaa.admin", "uaa.resource"))).isTrue();
+		assertThat(token.hasAnyScope(registry.mask("uaa.admin", "unknown"))).isFalse();
+	}
+
+	@Test
+	public void moreThan64Scopes() {
+		ScopeRegistry registry = ScopeRegistry.of(IntStream.range(0, 101)
+				.mapToObj(i -> i == 100 ? "uaa.resource" : "scope" + i).collect(Collectors.toList()));
+
+		assertThat(registry.getId("uaa.resource")).isEqualTo(100);
+		assertThat(token.getScopeIds(registry).stream()).containsExactly(100);
+		assertThat(token.hasAllScopes(registry.mask("uaa.resource"))).isTrue();
+		assertThat(token.hasAnyScope(registry.mask("scope1", "scope99"))).isFalse();
+	}
+}
@@ -66,4 +66,22 @@ public class XsuaaScopeConverterTest {
 		assertThat(translatedScope).isEmpty();
 	}
 
+	@Test
+	public void appIdIsNoPattern() {
+		cut = new XsuaaScopeConverter("my.app");
+		Collection<String> scope = newArrayList("myXapp.Read", "my.app.Write", "my.app.");
+
+		Collection<String> translatedScope = cut.convert(scope);
+
+		assertThat(translatedScope).containsExactly("Write");
+	}
+
+	@Test
+	public void getInstance_sharedPerAppId() {
+		assertThat(XsuaaScopeConverter.getInstance(appId)).isSameAs(XsuaaScopeConverter.getInstance(appId));
+		assertThat(XsuaaScopeConverter.getInstance(appId)).isNotSameAs(XsuaaScopeConverter.getInstance("otherAppId"));
+		assertThat(XsuaaScopeConverter.getInstance(appId).convert(newArrayList("myAppId!t1785.Read")))
+				.containsExactly("Read");
+	}
+
 }
@@ -3,6 +3,7 @@ package com.sap.cloud.security.token;
 import com.sap.cloud.security.config.Service;
 import org.apache.commons.io.IOUtils;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 import java.io.IOException;
 
@@ -38,6 +39,20 @@ public class XsuaaTokenTest {
 		assertThat(clientCredentialsToken.getScopes()).containsExactly("ROLE_SERVICEBROKER", "uaa.resource");
 	}
 
+	@Test
+	public void getScopes_isMemoized() {
+		assertThat(clientCredentialsToken.getPrincipal()).isSameAs(clientCredentialsToken.getPrincipal());
+		assertThat(clientCredentialsToken.getGrantType()).isEqualTo(GrantType.CLIENT_CREDENTIALS);
+	}
+
+	@Test
+	public void getScopes_returnsSetOwnedByCaller() {
+		clientCredentialsToken.getScopes().add("scope");
+
+		assertThat(clientCredentialsToken.getScopes()).containsExactly("ROLE_SERVICEBROKER", "uaa.resource");
+		assertThat(clientCredentialsToken.hasScope("scope")).isFalse();
+	}
+
 	@Test
 	public void hasScope_scopeExists_isTrue() {
 		assertThat(clientCredentialsToken.hasScope("ROLE_SERVICEBROKER")).isTrue();
@@ -56,6 +71,19 @@ public class XsuaaTokenTest {
 		assertThat(clientCredentialsToken.hasLocalScope("resource")).isTrue();
 	}
 
+	@Test
+	public void hasLocalScope_convertsScopesOncePerConverter() {
+		ScopeConverter converter = Mockito.spy(new XsuaaScopeConverter("uaa"));
+		clientCredentialsToken.withScopeConverter(converter);
+
+		assertThat(clientCredentialsToken.hasLocalScope("resource")).isTrue();
+		assertThat(clientCredentialsToken.hasLocalScope("other")).isFalse();
+		Mockito.verify(converter, Mockito.times(1)).convert(Mockito.any());
+
+		clientCredentialsToken.withScopeConverter(new XsuaaScopeConverter("ROLE_SERVICEBROKER"));
+		assertThat(clientCredentialsToken.hasLocalScope("resource")).isFalse();
+	}
+
 	@Test
 	public void getUserPrincipal() {
 		assertThat(userToken.getClaimAsString(TokenClaims.USER_NAME)).isEqualTo("testUser");
@@ -5,6 +5,14 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -111,4 +119,264 @@ public class CombiningValidatorTest {
 
 		assertThat(cut.getValidators()).containsExactly(validator1, validator2);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void validate_recordsStatistics() {
+		CombiningValidator<Token> cut = new CombiningValidator<>(
+				TokenTestValidator.createValid(), TokenTestValidator.createInvalid()).withStatistics();
+
+		cut.validate(TOKEN);
+		cut.validate(TOKEN);
+
+		ValidatorStatistics first = cut.getStatistics().get(0);
+		ValidatorStatistics second = cut.getStatistics().get(1);
+		assertThat(first.getValidatorName()).isEqualTo(TokenTestValidator.class.getName());
+		assertThat(first.getInvocations()).isEqualTo(2);
+		assertThat(first.getRejectionRate()).isEqualTo(0);
+		assertThat(second.getInvocations()).isEqualTo(2);
+		assertThat(second.getRejections()).isEqualTo(2);
+		assertThat(second.getRejectionRate()).isEqualTo(1);
+	}
+
+	@Test
+	public void validate_withoutStatistics_recordsNothing() {
+		CombiningValidator<Token> cut = new CombiningValidator<>(
+				TokenTestValidator.createValid(), TokenTestValidator.createInvalid());
+
+		assertThat(cut.validate(TOKEN).isErroneous()).isTrue();
+
+		assertThat(cut.getStatistics()).allMatch(statistics -> statistics.getInvocations() == 0);
+	}
+
+	@Test
+	public void withoutAdaptiveOrdering_keepsOrder() {
+		TokenTestValidator valid = TokenTestValidator.createValid();
+		TokenTestValidator invalid = TokenTestValidator.createInvalid();
+		CombiningValidator<Token> cut = new CombiningValidator<>(valid, invalid);
+
+		validateReorderInterval(cut);
+
+		assertThat(cut.getOrderedValidators()).containsExactly(valid, invalid);
+	}
+
+	@Test
+	public void withAdaptiveOrdering_movesRejectingValidatorToFront() {
+		TokenTestValidator issuer = TokenTestValidator.createValid();
+		TokenTestValidator signature = TokenTestValidator.createValid();
+		TokenTestValidator audience = TokenTestValidator.createInvalid();
+		CombiningValidator<Token> cut = new CombiningValidator<Token>(issuer, signature, audience)
+				.withAdaptiveOrdering(audience);
+
+		validateReorderInterval(cut);
+
+		assertThat(cut.getOrderedValidators()).containsExactly(audience, issuer, signature);
+		assertThat(cut.getValidators()).containsExactly(issuer, signature, audience);
+		assertThat(cut.getStatistics().get(1).getInvocations()).isLessThan(CombiningValidator.REORDER_INTERVAL);
+	}
+
+	@Test
+	public void withAdaptiveOrdering_fixedValidatorsKeepRelativeOrder() {
+		TokenTestValidator issuer = TokenTestValidator.createValid();
+		TokenTestValidator signature = TokenTestValidator.createInvalid();
+		TokenTestValidator timestamp = TokenTestValidator.createValid();
+		CombiningValidator<Token> cut = new CombiningValidator<Token>(timestamp, issuer, signature)
+				.withAdaptiveOrdering(timestamp);
+
+		validateReorderInterval(cut);
+
+		assertThat(cut.getOrderedValidators()).containsExactly(issuer, timestamp, signature);
+		assertThat(cut.validate(TOKEN).isErroneous()).isTrue();
+	}
+
+	@Test
+	public void withAdaptiveOrdering_validOnlyIfAllValidatorsPassed() {
+		TokenTestValidator first = TokenTestValidator.createValid();
+		TokenTestValidator second = TokenTestValidator.createValid();
+		CombiningValidator<Token> cut = new CombiningValidator<Token>(first, second)
+				.withAdaptiveOrdering(first, second);
+
+		validateReorderInterval(cut);
+
+		assertThat(cut.validate(TOKEN).isValid()).isTrue();
+		assertThat(cut.getStatistics()).allMatch(statistics -> statistics.getInvocations() == cut.getStatistics()
+				.get(0).getInvocations());
+	}
+
+	private static void validateReorderInterval(CombiningValidator<Token> cut) {
+		for (int i = 0; i < CombiningValidator.REORDER_INTERVAL; i++) {
+			cut.validate(TOKEN);
+		}
+	}
+
+	@Test
+	public void validateAsync_nonBlockingValidators_completedInline() {
+		List<Runnable> tasks = new ArrayList<>();
+		CombiningValidator<Token> cut = new CombiningValidator<Token>(TokenTestValidator.createValid(),
+				new BlockingTestValidator(false)).withExecutor(tasks::add);
+
+		CompletableFuture<ValidationResult> result = cut.validateAsync(TOKEN);
+
+		assertThat(result).isCompleted();
+		assertThat(result.join().isValid()).isTrue();
+		assertThat(tasks).isEmpty();
+	}
+
+	@Test
+	public void validateAsync_blockingValidator_runsOnExecutor() {
+		List<Runnable> tasks = new ArrayList<>();
+		TokenTestValidator last = TokenTestValidator.createInvalid(FIRST_ERROR_MESSAGE);
+		CombiningValidator<Token> cut = new CombiningValidator<Token>(new BlockingTestValidator(true), last)
+				.withExecutor(tasks::add).withStatistics();
+
+		CompletableFuture<ValidationResult> result = cut.validateAsync(TOKEN);
+
+		assertThat(result).isNotDone();
+		assertThat(tasks).hasSize(1);
+		tasks.get(0).run();
+		assertThat(result).isCompleted();
+		assertThat(result.join().getErrorDescription()).isEqualTo(FIRST_ERROR_MESSAGE);
+		assertThat(cut.getStatistics().get(1).getInvocations()).isEqualTo(1);
+	}
+
+	@Test
+	public void validateAsync_invalidResultBeforeBlockingValidator_completedInline() {
+		List<Runnable> tasks = new ArrayList<>();
+		CombiningValidator<Token> cut = new CombiningValidator<Token>(TokenTestValidator.createInvalid(),
+				new BlockingTestValidator(true)).withExecutor(tasks::add);
+
+		CompletableFuture<ValidationResult> result = cut.validateAsync(TOKEN);
+
+		assertThat(result.join().isErroneous()).isTrue();
+		assertThat(tasks).isEmpty();
+	}
+
+	@Test
+	public void validateAsync_callsListeners() {
+		CombiningValidator<Token> cut = new CombiningValidator<Token>(new BlockingTestValidator(true))
+				.withExecutor(Runnable::run);
+		ValidationListener validationListenerMock = Mockito.mock(ValidationListener.class);
+		cut.registerValidationListener(validationListenerMock);
+
+		assertThat(cut.validateAsync(TOKEN).join().isValid()).isTrue();
+
+		Mockito.verify(validationListenerMock, times(1)).onValidationSuccess();
+	}
+
+	@Test
+	public void defaultExecutor_boundsQueueAndRunsRejectedValidationsInCaller() {
+		ThreadPoolExecutor executor = CombiningValidator.createDefaultExecutor();
+
+		assertThat(executor.getQueue().remainingCapacity()).isEqualTo(CombiningValidator.DEFAULT_EXECUTOR_QUEUE_SIZE);
+		assertThat(executor.getRejectedExecutionHandler()).isInstanceOf(ThreadPoolExecutor.CallerRunsPolicy.class);
+	}
+
+	@Test
+	public void validateAsync_defaultExecutor_runsOnDaemonThreadOfValidator() {
+		AtomicReference<Thread> validatingThread = new AtomicReference<>();
+		CombiningValidator<Token> cut = new CombiningValidator<Token>(new BlockingTestValidator(true) {
+			@Override
+			public ValidationResult validate(Token token) {
+				validatingThread.set(Thread.currentThread());
+				return super.validate(token);
+			}
+		});
+
+		assertThat(cut.validateAsync(TOKEN).join().isValid()).isTrue();
+
+		assertThat(validatingThread.get().isDaemon()).isTrue();
+		assertThat(validatingThread.get().getName()).startsWith("token-validation-");
+	}
+
+	@Test
+	public void validateAll_resultsInInputOrder() {
+		Validator<String> notEmpty = value -> value.isEmpty() ? ValidationResults.createInvalid("empty")
+				: ValidationResults.createValid();
+		CombiningValidator<String> cut = new CombiningValidator<>(notEmpty);
+		List<String> values = new ArrayList<>();
+		for (int i = 0; i < 3 * CombiningValidator.BATCH_CHUNK_SIZE; i++) {
+			values.add(i % 3 == 0 ? "" : "value" + i);
+		}
+
+		List<ValidationResult> results = cut.validateAll(values);
+
+		assertThat(results).hasSize(values.size());
+		for (int i = 0; i < values.size(); i++) {
+			assertThat(results.get(i).isErroneous()).isEqualTo(i % 3 == 0);
+		}
+	}
+
+	@Test
+	public void validateAll_validatesFirstOfGroupBeforeOthers() {
+		Set<String> loadedKeys = ConcurrentHashMap.newKeySet();
+		AtomicInteger loads = new AtomicInteger();
+		Validator<String> keyLoading = value -> {
+			String key = value.substring(0, 1);
+			if (!loadedKeys.contains(key)) {
+				loads.incrementAndGet();
+				loadedKeys.add(key);
+			}
+			return ValidationResults.createValid();
+		};
+		CombiningValidator<String> cut = new CombiningValidator<>(keyLoading)
+				.withBatchKey(value -> value.substring(0, 1));
+		List<String> values = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			values.add((i % 2 == 0 ? "a" : "b") + i);
+		}
+
+		List<ValidationResult> results = cut.validateAll(values);
+
+		assertThat(results).allMatch(ValidationResult::isValid);
+		assertThat(loads.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void validateAll_throwingItem_isInvalidOthersAreValidated() {
+		Validator<String> throwingForFirst = value -> {
+			if (value.endsWith("0")) {
+				throw new IllegalStateException("validation failed for " + value);
+			}
+			return ValidationResults.createValid();
+		};
+		CombiningValidator<String> cut = new CombiningValidator<>(throwingForFirst)
+				.withBatchKey(value -> value.substring(0, 1))
+				.withExecutor(Runnable::run);
+		List<String> values = Arrays.asList("a0", "a1", "a2", "b0", "c1");
+
+		List<ValidationResult> results = cut.validateAll(values);
+
+		assertThat(results).hasSize(values.size());
+		assertThat(results.get(0).isErroneous()).isTrue();
+		assertThat(results.get(0).getErrorCode()).isEqualTo(ValidationErrorCode.UNSPECIFIED);
+		assertThat(results.get(0).getErrorDescription()).contains("validation failed for a0");
+		assertThat(results.get(1).isValid()).isTrue();
+		assertThat(results.get(2).isValid()).isTrue();
+		assertThat(results.get(3).isErroneous()).isTrue();
+		assertThat(results.get(4).isValid()).isTrue();
+	}
+
+	@Test
+	public void validateAll_noItems_emptyResult() {
+		CombiningValidator<Token> cut = new CombiningValidator<>(TokenTestValidator.createValid());
+
+		assertThat(cut.validateAll(new ArrayList<>())).isEmpty();
+	}
+
+	private static class BlockingTestValidator implements BlockingValidator<Token> {
+		private final boolean mayBlock;
+
+		BlockingTestValidator(boolean mayBlock) {
+			this.mayBlock = mayBlock;
+		}
+
+		@Override
+		public boolean mayBlock(Token token) {
+			return mayBlock;
+		}
+
+		@Override
+		public ValidationResult validate(Token token) {
+			return ValidationResults.createValid();
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package com.sap.cloud.security.token.validation;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+public class ValidationFailureLoggerTest {
+	private static final ValidationResult EXPIRED = new ValidationResults.ValidationResultImpl(
+			ValidationErrorCode.EXPIRED, "Jwt expired");
+	private static final ValidationResult UNTRUSTED_AUDIENCE = new ValidationResults.ValidationResultImpl(
+			ValidationErrorCode.UNTRUSTED_AUDIENCE, "Jwt not issued for {}", "me");
+
+	private Logger loggerMock;
+	private AtomicLong currentTimeMillis;
+	private ValidationFailureLogger cut;
+
+	@Before
+	public void setUp() {
+		loggerMock = Mockito.mock(Logger.class);
+		currentTimeMillis = new AtomicLong(1000);
+		cut = new ValidationFailureLogger(loggerMock, currentTimeMillis::get).withLogInterval(Duration.ofSeconds(10));
+	}
+
+	@Test
+	public void firstFailure_isLoggedImmediately() {
+		cut.log(ValidationErrorCode.EXPIRED, EXPIRED);
+
+		ArgumentCaptor<Object> failures = ArgumentCaptor.forClass(Object.class);
+		Mockito.verify(loggerMock).warn(anyString(), eq(1L), failures.capture());
+		assertThat(failures.getValue().toString()).isEqualTo("EXPIRED=1 (Jwt expired)");
+	}
+
+	@Test
+	public void failuresWithinInterval_areLoggedAggregated() {
+		cut.log(ValidationErrorCode.EXPIRED, EXPIRED);
+		for (int i = 0; i < 100; i++) {
+			cut.log(ValidationErrorCode.EXPIRED, EXPIRED);
+			cut.log(ValidationErrorCode.UNTRUSTED_AUDIENCE, UNTRUSTED_AUDIENCE);
+		}
+		Mockito.verify(loggerMock, times(1)).warn(anyString(), any(Object.class), any(Object.class));
+
+		currentTimeMillis.addAndGet(10_000);
+		cut.log(ValidationErrorCode.EXPIRED, EXPIRED);
+
+		ArgumentCaptor<Object> failures = ArgumentCaptor.forClass(Object.class);
+		Mockito.verify(loggerMock).warn(anyString(), eq(201L), failures.capture());
+		assertThat(failures.getValue().toString())
+				.isEqualTo("EXPIRED=101 (Jwt expired), UNTRUSTED_AUDIENCE=100 (Jwt not issued for me)");
+	}
+
+	@Test
+	public void failuresWithinInterval_areNotFormatted() {
+		ValidationResult resultMock = Mockito.mock(ValidationResult.class);
+		cut.log(ValidationErrorCode.EXPIRED, EXPIRED);
+
+		cut.log(ValidationErrorCode.UNTRUSTED_ISSUER, resultMock);
+		cut.log(ValidationErrorCode.UNTRUSTED_ISSUER, resultMock);
+
+		Mockito.verify(resultMock, never()).getErrorDescription();
+	}
+
+	@Test
+	public void getFailureCounts() {
+		cut.log(ValidationErrorCode.EXPIRED, EXPIRED);
+		cut.log(ValidationErrorCode.EXPIRED, EXPIRED);
+		currentTimeMillis.addAndGet(10_000);
+		cut.log(ValidationErrorCode.EXPIRED, EXPIRED);
+
+		assertThat(cut.getFailureCounts())
+				.containsEntry(ValidationErrorCode.EXPIRED, 3L)
+				.containsEntry(ValidationErrorCode.INVALID_SIGNATURE, 0L);
+	}
+
+	@Test
+	public void getFailureCounts_afterInterval_logsPendingFailures() {
+		cut.log(ValidationErrorCode.EXPIRED, EXPIRED);
+		cut.log(ValidationErrorCode.UNTRUSTED_AUDIENCE, UNTRUSTED_AUDIENCE);
+
+		cut.getFailureCounts();
+		Mockito.verify(loggerMock, times(1)).warn(anyString(), any(Object.class), any(Object.class));
+
+		currentTimeMillis.addAndGet(10_000);
+		cut.getFailureCounts();
+
+		Mockito.verify(loggerMock).warn(anyString(), eq(1L), eq("EXPIRED=1 (Jwt expired)"));
+		Mockito.verify(loggerMock).warn(anyString(), eq(1L), eq("UNTRUSTED_AUDIENCE=1 (Jwt not issued for me)"));
+	}
+
+	@Test
+	public void getFailureCounts_withoutFailures_firstFailureIsLoggedImmediately() {
+		cut.getFailureCounts();
+		Mockito.verify(loggerMock, never()).warn(anyString(), any(Object.class), any(Object.class));
+
+		cut.log(ValidationErrorCode.EXPIRED, EXPIRED);
+
+		Mockito.verify(loggerMock).warn(anyString(), eq(1L), eq("EXPIRED=1 (Jwt expired)"));
+	}
+
+	@Test
+	public void getFailureCount_doesNotLogPendingFailures() {
+		cut.log(ValidationErrorCode.EXPIRED, EXPIRED);
+		cut.log(ValidationErrorCode.EXPIRED, EXPIRED);
+		currentTimeMillis.addAndGet(10_000);
+
+		assertThat(cut.getFailureCount(ValidationErrorCode.EXPIRED)).isEqualTo(2);
+		assertThat(cut.getFailureCount(ValidationErrorCode.INVALID_SIGNATURE)).isZero();
+		Mockito.verify(loggerMock, times(1)).warn(anyString(), any(Object.class), any(Object.class));
+	}
+}
@@ -2,6 +2,11 @@ package com.sap.cloud.security.token.validation;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class ValidationResultsTest {
@@ -54,4 +59,44 @@ public class ValidationResultsTest {
 		assertThat(validationResult.getErrorDescription()).isEqualTo("An error message first");
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void createInvalid_withoutErrorCode_isUnspecified() {
+		assertThat(ValidationResults.createInvalid("An error message").getErrorCode())
+				.isEqualTo(ValidationErrorCode.UNSPECIFIED);
+		assertThat(ValidationResults.createValid().getErrorCode()).isNull();
+	}
+
+	@Test
+	public void createInvalidWithErrorCode_formatsDescriptionLazily() {
+		AtomicInteger formatCount = new AtomicInteger();
+		Object argument = new Object() {
+			@Override
+			public String toString() {
+				formatCount.incrementAndGet();
+				return "first";
+			}
+		};
+
+		ValidationResult validationResult = ValidationResults.createInvalid(ValidationErrorCode.EXPIRED,
+				"An error message {}", argument);
+
+		assertThat(validationResult.isErroneous()).isTrue();
+		assertThat(validationResult.getErrorCode()).isEqualTo(ValidationErrorCode.EXPIRED);
+		assertThat(formatCount.get()).isZero();
+		assertThat(validationResult.getErrorDescription()).isEqualTo("An error message first");
+		assertThat(validationResult.getErrorDescription()).isEqualTo("An error message first");
+		assertThat(formatCount.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void createInvalidWithErrorCode_collectionArgumentChangesLater_descriptionIsUnchanged() {
+		List<String> audiences = new ArrayList<>(Collections.singletonList("first"));
+
+		ValidationResult validationResult = ValidationResults.createInvalid(ValidationErrorCode.UNTRUSTED_AUDIENCE,
+				"Audiences {}", audiences);
+		audiences.add("second");
+
+		assertThat(validationResult.getErrorDescription()).isEqualTo("Audiences [first]");
+	}
+
+}
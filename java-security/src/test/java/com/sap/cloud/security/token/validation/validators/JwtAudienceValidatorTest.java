@@ -92,6 +92,27 @@ public class JwtAudienceValidatorTest {
 		assertThat(result.isValid()).isTrue(); // should match
 	}
 
+	@Test
+	public void validate_brokerClientIdMatchesCloneAudienceWithNamespace() {
+		Mockito.when(token.getAudiences())
+				.thenReturn(Sets.newLinkedHashSet(" sb-clone!b446|" + XSUAA_BROKER_XSAPPNAME + " .read"));
+
+		ValidationResult result = new JwtAudienceValidator("sb-" + XSUAA_BROKER_XSAPPNAME)
+				.configureTrustedClientId(XSUAA_BROKER_XSAPPNAME)
+				.validate(token);
+
+		assertThat(result.isValid()).isTrue();
+	}
+
+	@Test
+	public void validationFails_cloneAudienceOfNonBrokerClientId() {
+		Mockito.when(token.getAudiences()).thenReturn(Sets.newLinkedHashSet("sb-clone!b446|appId!t1"));
+
+		ValidationResult result = new JwtAudienceValidator("appId!t1").validate(token);
+
+		assertThat(result.isErroneous()).isTrue();
+	}
+
 	@Test
 	public void validationFails_when_NoTokenAudienceMatches() {
 		ValidationResult result = new JwtAudienceValidator("any")
@@ -133,6 +133,33 @@ public class JwtSignatureValidatorTest {
 				containsString("Error retrieving Json Web Keys from Identity Service"));
 	}
 
+	@Test
+	public void signatureVerifierPool_reusesReleasedVerifier() throws Exception {
+		JwtSignatureValidator.SignatureVerifierPool pool = new JwtSignatureValidator.SignatureVerifierPool();
+		JwtSignatureValidator.SignatureVerifier verifier = pool.borrow(JwtSignatureAlgorithm.RS256);
+		assertThat(pool.borrow(JwtSignatureAlgorithm.RS256), is(not(sameInstance(verifier))));
+
+		pool.release(verifier);
+		assertThat(pool.borrow(JwtSignatureAlgorithm.RS256), is(sameInstance(verifier)));
+	}
+
+	@Test
+	public void validate_reusesSignatureVerifier() throws Exception {
+
+		String[] tokenHeaderPayloadSignature = xsuaaToken.getTokenValue().split(Pattern.quote("."));
+		String tokenWithOthersSignature = new StringBuilder("eyJhbGciOiJSUzI1NiJ9")
+				.append(".")
+				.append(tokenHeaderPayloadSignature[1])
+				.append(".")
+				.append(tokenHeaderPayloadSignature[2]).toString();
+		assertThat(cut.validate(xsuaaToken.getTokenValue(), "RS256", "key-id-1", DUMMY_JKU_URI.toString(), null)
+				.isValid(), is(true));
+		assertThat(cut.validate(tokenWithOthersSignature, "RS256", "key-id-1", DUMMY_JKU_URI.toString(), null)
+				.isErroneous(), is(true));
+		assertThat(cut.validate(xsuaaToken.getTokenValue(), "RS256", "key-id-1", DUMMY_JKU_URI.toString(), null)
+				.isValid(), is(true));
+	}
+
 	@Test
 	@Ignore // Not yet supported
 	public void jsonECSignatureMatchesJWKS() {
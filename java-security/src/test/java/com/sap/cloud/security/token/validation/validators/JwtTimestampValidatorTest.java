@@ -128,4 +128,15 @@ public class JwtTimestampValidatorTest {
 		assertThat(validationResult.isErroneous()).isTrue();
 	}
 
+	@Test
+	public void defaultClock_validatesAgainstCurrentTime() {
+		cut = new JwtTimestampValidator();
+
+		assertThat(cut.validate(tokenFactory.withExpiration(Instant.now().plus(ONE_MINUTE)).build()).isValid())
+				.isTrue();
+		assertThat(cut.validate(tokenFactory.withExpiration(Instant.now().minus(Duration.ofMinutes(2))).build())
+				.isValid()).isFalse();
+		assertThat(cut.validate(tokenFactory.withExpiration(Instant.MAX).build()).isValid()).isTrue();
+	}
+
 }
\ No newline at end of file
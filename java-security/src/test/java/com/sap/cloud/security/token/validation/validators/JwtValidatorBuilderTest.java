@@ -6,12 +6,14 @@ import com.sap.cloud.security.config.Service;
 import com.sap.cloud.security.config.cf.CFConstants;
 import com.sap.cloud.security.token.Token;
 import com.sap.cloud.security.token.validation.*;
+import com.sap.cloud.security.xsuaa.client.OAuth2TokenKeyService;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.net.URI;
 import java.util.List;
 
 import static com.sap.cloud.security.config.Service.XSUAA;
@@ -40,6 +42,42 @@ public class JwtValidatorBuilderTest {
 		assertThat(builder_1).isSameAs(builder_2);
 	}
 
+	@Test
+	public void differentServiceConfigurations_shareTokenKeyCache() throws Exception {
+		OAuth2TokenKeyService tokenKeyServiceMock = Mockito.mock(OAuth2TokenKeyService.class);
+		OAuth2ServiceConfiguration brokerConfiguration = OAuth2ServiceConfigurationBuilder.forService(XSUAA)
+				.withProperty(CFConstants.XSUAA.UAA_DOMAIN, "auth.com")
+				.withClientId("sb-broker!b123").build();
+
+		JwtValidatorBuilder.getInstance(xsuaaConfigBuilder.build()).withOAuth2TokenKeyService(tokenKeyServiceMock)
+				.build();
+		JwtValidatorBuilder.getInstance(brokerConfiguration).withOAuth2TokenKeyService(tokenKeyServiceMock).build();
+		OAuth2TokenKeyServiceWithCache sharedTokenKeyService = SharedCacheRegistry.getInstance()
+				.acquireTokenKeyService(tokenKeyServiceMock, () -> null);
+
+		sharedTokenKeyService.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", URI.create("https://auth.com"));
+		Mockito.verify(tokenKeyServiceMock).retrieveTokenKeys(URI.create("https://auth.com"));
+	}
+
+	@Test
+	public void sameCacheKey_shareTokenKeyCache() throws Exception {
+		Object restClient = new Object();
+		OAuth2TokenKeyService tokenKeyServiceMock = Mockito.mock(OAuth2TokenKeyService.class);
+		OAuth2ServiceConfiguration brokerConfiguration = OAuth2ServiceConfigurationBuilder.forService(XSUAA)
+				.withProperty(CFConstants.XSUAA.UAA_DOMAIN, "auth.com")
+				.withClientId("sb-other-broker!b123").build();
+
+		JwtValidatorBuilder.getInstance(xsuaaConfigBuilder.withClientId("sb-cache-key!t123").build())
+				.withOAuth2TokenKeyService(tokenKeyServiceMock, restClient).build();
+		JwtValidatorBuilder.getInstance(brokerConfiguration)
+				.withOAuth2TokenKeyService(Mockito.mock(OAuth2TokenKeyService.class), restClient).build();
+		OAuth2TokenKeyServiceWithCache sharedTokenKeyService = SharedCacheRegistry.getInstance()
+				.acquireTokenKeyService(restClient, () -> null);
+
+		sharedTokenKeyService.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", URI.create("https://auth.com"));
+		Mockito.verify(tokenKeyServiceMock).retrieveTokenKeys(URI.create("https://auth.com"));
+	}
+
 	@Test
 	public void withAudienceValidator_overridesXsuaaJwtAudienceValidator() {
 		TokenTestValidator validator = TokenTestValidator.createValid();
@@ -64,6 +102,21 @@ public class JwtValidatorBuilderTest {
 				.hasAtLeastOneElementOfType(JwtSignatureValidator.class);
 	}
 
+	@Test
+	public void buildWithAdaptiveOrdering_issuerValidatedBeforeSignature() {
+		CombiningValidator<Token> combiningValidator = JwtValidatorBuilder
+				.getInstance(xsuaaConfigBuilder.withClientId("sb-adaptive!t123").build())
+				.withAdaptiveValidatorOrdering(true)
+				.build();
+
+		List<Validator<Token>> validators = combiningValidator.getOrderedValidators();
+
+		assertThat(validators).hasSize(4);
+		assertThat(validators.get(0)).isInstanceOf(JwtTimestampValidator.class);
+		assertThat(validators.get(1)).isInstanceOf(XsuaaJwtIssuerValidator.class);
+		assertThat(validators.get(2)).isInstanceOf(JwtSignatureValidator.class);
+	}
+
 	@Test
 	public void buildLegacy_containsAllDefaultValidators() {
 		List<Validator<Token>> validators = JwtValidatorBuilder
@@ -11,12 +11,26 @@ import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
 import java.security.spec.InvalidKeySpecException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import com.github.benmanes.caffeine.cache.Ticker;
 import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
 import com.sap.cloud.security.xsuaa.client.OAuth2TokenKeyService;
 import org.apache.commons.io.IOUtils;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.assertj.core.api.Assertions;
 import org.mockito.Mockito;
 
@@ -25,6 +39,9 @@ public class OAuth2TokenKeyServiceWithCacheTest {
 	OAuth2TokenKeyService tokenKeyServiceMock;
 	URI TOKEN_KEYS_URI = URI.create("https://myauth.com/jwks_uri");
 
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	@Before
 	public void setup() throws IOException {
 		tokenKeyServiceMock = Mockito.mock(OAuth2TokenKeyService.class);
@@ -73,6 +90,209 @@ public class OAuth2TokenKeyServiceWithCacheTest {
 				.retrieveTokenKeys(TOKEN_KEYS_URI);
 	}
 
+	@Test
+	public void concurrentRequests_retrieveTokenKeysOnlyOnce() throws Exception {
+		CountDownLatch requestStarted = new CountDownLatch(1);
+		String tokenKeys = IOUtils.resourceToString("/jsonWebTokenKeys.json", StandardCharsets.UTF_8);
+		when(tokenKeyServiceMock.retrieveTokenKeys(TOKEN_KEYS_URI)).thenAnswer(invocation -> {
+			requestStarted.countDown();
+			Thread.sleep(100);
+			return tokenKeys;
+		});
+		ExecutorService executor = Executors.newFixedThreadPool(10);
+		List<Future<PublicKey>> keys = new ArrayList<>();
+		try {
+			for (int i = 0; i < 10; i++) {
+				keys.add(executor.submit(() -> {
+					requestStarted.await();
+					return cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI);
+				}));
+			}
+			cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-1", TOKEN_KEYS_URI);
+			for (Future<PublicKey> key : keys) {
+				Assertions.assertThat(key.get()).isNotNull();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		Mockito.verify(tokenKeyServiceMock, times(1)).retrieveTokenKeys(TOKEN_KEYS_URI);
+	}
+
+	@Test
+	public void outdatedTokenKeys_refreshedInBackground() throws Exception {
+		FakeTicker ticker = new FakeTicker();
+		cut.withCacheTicker(ticker, Runnable::run);
+		PublicKey key = cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI);
+
+		ticker.advance(Duration.ofSeconds(601));
+		Assertions.assertThat(cut.getCacheEntryAges().get(TOKEN_KEYS_URI)).isEqualTo(Duration.ofSeconds(601));
+
+		PublicKey refreshedKey = cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI);
+		Assertions.assertThat(refreshedKey).isSameAs(key);
+		Assertions.assertThat(cut.getCacheEntryAges().get(TOKEN_KEYS_URI)).isEqualTo(Duration.ZERO);
+
+		Mockito.verify(tokenKeyServiceMock, times(2)).retrieveTokenKeys(TOKEN_KEYS_URI);
+	}
+
+	@Test
+	public void refreshFails_outdatedTokenKeysServedWithinGracePeriod() throws Exception {
+		FakeTicker ticker = new FakeTicker();
+		cut.withCacheGracePeriod(100).withCacheTicker(ticker, Runnable::run);
+		cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI);
+		when(tokenKeyServiceMock.retrieveTokenKeys(any()))
+				.thenThrow(new OAuth2ServiceException("Currently unavailable"));
+
+		ticker.advance(Duration.ofSeconds(650));
+		Assertions.assertThat(cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI)).isNotNull();
+		Assertions.assertThat(cut.getCacheEntryAges().get(TOKEN_KEYS_URI)).isEqualTo(Duration.ofSeconds(650));
+
+		ticker.advance(Duration.ofSeconds(51));
+		Assertions.assertThat(cut.getCacheEntryAges()).isEmpty();
+		assertThatThrownBy(() -> {
+			cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI);
+		}).isInstanceOf(OAuth2ServiceException.class).hasMessageStartingWith("Currently unavailable");
+	}
+
+	@Test
+	public void refreshFails_retriedAfterRefreshRetryInterval() throws Exception {
+		FakeTicker ticker = new FakeTicker();
+		cut.withRefreshRetryInterval(30).withCacheTicker(ticker, Runnable::run);
+		PublicKey key = cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI);
+		when(tokenKeyServiceMock.retrieveTokenKeys(any()))
+				.thenThrow(new OAuth2ServiceException("Currently unavailable"));
+
+		ticker.advance(Duration.ofSeconds(601));
+		Assertions.assertThat(cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI)).isSameAs(key);
+		ticker.advance(Duration.ofSeconds(29));
+		Assertions.assertThat(cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI)).isSameAs(key);
+		Mockito.verify(tokenKeyServiceMock, times(2)).retrieveTokenKeys(TOKEN_KEYS_URI);
+
+		ticker.advance(Duration.ofSeconds(1));
+		Assertions.assertThat(cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI)).isSameAs(key);
+		Mockito.verify(tokenKeyServiceMock, times(3)).retrieveTokenKeys(TOKEN_KEYS_URI);
+		Assertions.assertThat(cut.getCacheEntryAges().get(TOKEN_KEYS_URI)).isEqualTo(Duration.ofSeconds(631));
+
+		assertThatThrownBy(() -> {
+			cut.withRefreshRetryInterval(-1);
+		}).isInstanceOf(IllegalArgumentException.class).hasMessageContainingAll("retry interval");
+	}
+
+	@Test
+	public void changeCacheGracePeriod() {
+		cut.withCacheGracePeriod(0);
+
+		assertThatThrownBy(() -> {
+			cut.withCacheGracePeriod(-1);
+		}).isInstanceOf(IllegalArgumentException.class).hasMessageContainingAll("grace period");
+	}
+
+	@Test
+	public void unknownKeyId_withinMinRefetchInterval_returnsNullWithoutRequest() throws Exception {
+		FakeTicker ticker = new FakeTicker();
+		cut.withCacheTicker(ticker, Runnable::run);
+		cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI);
+
+		ticker.advance(Duration.ofSeconds(29));
+		Assertions.assertThat(cut.getPublicKey(JwtSignatureAlgorithm.RS256, "unknown", TOKEN_KEYS_URI)).isNull();
+		Assertions.assertThat(cut.getPublicKey(JwtSignatureAlgorithm.RS256, "forged", TOKEN_KEYS_URI)).isNull();
+
+		Mockito.verify(tokenKeyServiceMock, times(1)).retrieveTokenKeys(TOKEN_KEYS_URI);
+		Assertions.assertThat(cut.getSuppressedRefetchCounts()).containsEntry(TOKEN_KEYS_URI, 2L);
+		Assertions.assertThat(cut.getMinRefetchInterval()).isEqualTo(Duration.ofSeconds(30));
+	}
+
+	@Test
+	public void unknownKeyId_afterMinRefetchInterval_retrievesTokenKeys() throws Exception {
+		FakeTicker ticker = new FakeTicker();
+		cut.withMinRefetchInterval(10).withCacheTicker(ticker, Runnable::run);
+		cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI);
+
+		ticker.advance(Duration.ofSeconds(10));
+		Assertions.assertThat(cut.getPublicKey(JwtSignatureAlgorithm.RS256, "unknown", TOKEN_KEYS_URI)).isNull();
+		Assertions.assertThat(cut.getPublicKey(JwtSignatureAlgorithm.RS256, "unknown", TOKEN_KEYS_URI)).isNull();
+
+		Mockito.verify(tokenKeyServiceMock, times(2)).retrieveTokenKeys(TOKEN_KEYS_URI);
+		Assertions.assertThat(cut.getSuppressedRefetchCounts()).containsEntry(TOKEN_KEYS_URI, 1L);
+		Assertions.assertThat(cut.getCacheStats().loadSuccessCount()).isEqualTo(2);
+
+		assertThatThrownBy(() -> {
+			cut.withMinRefetchInterval(-1);
+		}).isInstanceOf(IllegalArgumentException.class).hasMessageContainingAll("refetch interval");
+	}
+
+	@Test
+	public void identicalKeysOfAnotherEndpoint_sameInstance() throws Exception {
+		URI tenantTokenKeysUri = URI.create("https://tenant.myauth.com/jwks_uri");
+		when(tokenKeyServiceMock.retrieveTokenKeys(tenantTokenKeysUri))
+				.thenReturn(IOUtils.resourceToString("/jsonWebTokenKeys.json", StandardCharsets.UTF_8));
+
+		PublicKey key = cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI);
+		PublicKey tenantKey = cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", tenantTokenKeysUri);
+
+		Assertions.assertThat(tenantKey).isSameAs(key);
+	}
+
+	@Test
+	public void loadSnapshot_tokenKeysServedWithoutRequest() throws Exception {
+		Path snapshot = temporaryFolder.getRoot().toPath().resolve("jwks-snapshot.json");
+		PublicKey key = cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI);
+		cut.writeSnapshot(snapshot);
+
+		OAuth2TokenKeyService unavailableTokenKeyService = Mockito.mock(OAuth2TokenKeyService.class);
+		when(unavailableTokenKeyService.retrieveTokenKeys(any()))
+				.thenThrow(new OAuth2ServiceException("Currently unavailable"));
+		OAuth2TokenKeyServiceWithCache restartedCut = OAuth2TokenKeyServiceWithCache.getInstance()
+				.withTokenKeyService(unavailableTokenKeyService)
+				.withCacheTicker(new FakeTicker(), Runnable::run);
+
+		Assertions.assertThat(restartedCut.loadSnapshot(snapshot)).isEqualTo(1);
+		Assertions.assertThat(restartedCut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI))
+				.isEqualTo(key);
+		Mockito.verify(unavailableTokenKeyService, times(1)).retrieveTokenKeys(TOKEN_KEYS_URI); // refresh
+	}
+
+	@Test
+	public void loadSnapshot_tokenKeysExpireRelativeToSnapshot() throws Exception {
+		Path snapshot = temporaryFolder.getRoot().toPath().resolve("jwks-snapshot.json");
+		cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI);
+		cut.writeSnapshot(snapshot);
+		Files.setLastModifiedTime(snapshot, FileTime.from(Instant.now().minus(Duration.ofSeconds(4190))));
+
+		OAuth2TokenKeyService unavailableTokenKeyService = Mockito.mock(OAuth2TokenKeyService.class);
+		when(unavailableTokenKeyService.retrieveTokenKeys(any()))
+				.thenThrow(new OAuth2ServiceException("Currently unavailable"));
+		FakeTicker ticker = new FakeTicker();
+		OAuth2TokenKeyServiceWithCache restartedCut = OAuth2TokenKeyServiceWithCache.getInstance()
+				.withTokenKeyService(unavailableTokenKeyService)
+				.withCacheTicker(ticker, Runnable::run);
+
+		Assertions.assertThat(restartedCut.loadSnapshot(snapshot)).isEqualTo(1);
+		Assertions.assertThat(restartedCut.getCacheEntryAges().get(TOKEN_KEYS_URI))
+				.isGreaterThanOrEqualTo(Duration.ofSeconds(4190));
+		Assertions.assertThat(restartedCut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI))
+				.isNotNull();
+
+		ticker.advance(Duration.ofSeconds(10));
+		Assertions.assertThat(restartedCut.getCacheEntryAges()).isEmpty();
+		assertThatThrownBy(() -> {
+			restartedCut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI);
+		}).isInstanceOf(OAuth2ServiceException.class).hasMessageStartingWith("Currently unavailable");
+	}
+
+	@Test
+	public void loadSnapshot_outdatedOrMissingSnapshotIsIgnored() throws Exception {
+		Path snapshot = temporaryFolder.getRoot().toPath().resolve("jwks-snapshot.json");
+		Assertions.assertThat(cut.loadSnapshot(snapshot)).isEqualTo(0);
+
+		cut.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI);
+		cut.writeSnapshot(snapshot);
+		Files.setLastModifiedTime(snapshot, FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+
+		Assertions.assertThat(OAuth2TokenKeyServiceWithCache.getInstance().loadSnapshot(snapshot)).isEqualTo(0);
+		Assertions.assertThat(temporaryFolder.getRoot().list()).containsExactly("jwks-snapshot.json");
+	}
+
 	@Test
 	public void retrieveNoTokenKeys_returnsNull()
 			throws OAuth2ServiceException, InvalidKeySpecException, NoSuchAlgorithmException {
@@ -115,4 +335,17 @@ public class OAuth2TokenKeyServiceWithCacheTest {
 		Mockito.verify(tokenKeyServiceMock, times(2))
 				.retrieveTokenKeys(any());
 	}
+
+	static class FakeTicker implements Ticker {
+		private long nanos = 0;
+
+		@Override
+		public long read() {
+			return nanos;
+		}
+
+		void advance(Duration duration) {
+			nanos += duration.toNanos();
+		}
+	}
 }
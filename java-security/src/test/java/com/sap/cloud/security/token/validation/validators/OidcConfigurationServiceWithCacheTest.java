@@ -9,6 +9,7 @@ import java.io.IOException;
 import java.net.URI;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
+import java.time.Duration;
 
 import com.sap.cloud.security.xsuaa.client.OAuth2ServiceEndpointsProvider;
 import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
@@ -73,6 +74,58 @@ public class OidcConfigurationServiceWithCacheTest {
 				.retrieveEndpoints(DISCOVERY_URI);
 	}
 
+	@Test
+	public void outdatedEndpoints_refreshedInBackground() throws OAuth2ServiceException {
+		OAuth2TokenKeyServiceWithCacheTest.FakeTicker ticker = new OAuth2TokenKeyServiceWithCacheTest.FakeTicker();
+		cut.withCacheTicker(ticker, Runnable::run);
+		cut.getOrRetrieveEndpoints(DISCOVERY_URI);
+
+		ticker.advance(Duration.ofSeconds(601));
+		Assertions.assertThat(cut.getCacheEntryAges().get(DISCOVERY_URI)).isEqualTo(Duration.ofSeconds(601));
+
+		Assertions.assertThat(cut.getOrRetrieveEndpoints(DISCOVERY_URI)).isSameAs(oidcEndpointsProviderMock);
+		Assertions.assertThat(cut.getCacheEntryAges().get(DISCOVERY_URI)).isEqualTo(Duration.ZERO);
+
+		Mockito.verify(oidcConfigServiceMock, times(2)).retrieveEndpoints(DISCOVERY_URI);
+	}
+
+	@Test
+	public void refreshFails_outdatedEndpointsServedWithinGracePeriod() throws OAuth2ServiceException {
+		OAuth2TokenKeyServiceWithCacheTest.FakeTicker ticker = new OAuth2TokenKeyServiceWithCacheTest.FakeTicker();
+		cut.withCacheGracePeriod(100).withCacheTicker(ticker, Runnable::run);
+		cut.getOrRetrieveEndpoints(DISCOVERY_URI);
+		when(oidcConfigServiceMock.retrieveEndpoints(any()))
+				.thenThrow(new OAuth2ServiceException("Currently unavailable"));
+
+		ticker.advance(Duration.ofSeconds(650));
+		Assertions.assertThat(cut.getOrRetrieveEndpoints(DISCOVERY_URI)).isSameAs(oidcEndpointsProviderMock);
+
+		ticker.advance(Duration.ofSeconds(51));
+		assertThatThrownBy(() -> {
+			cut.getOrRetrieveEndpoints(DISCOVERY_URI);
+		}).isInstanceOf(OAuth2ServiceException.class).hasMessageStartingWith("Currently unavailable");
+	}
+
+	@Test
+	public void refreshFails_retriedAfterRefreshRetryInterval() throws OAuth2ServiceException {
+		OAuth2TokenKeyServiceWithCacheTest.FakeTicker ticker = new OAuth2TokenKeyServiceWithCacheTest.FakeTicker();
+		cut.withRefreshRetryInterval(30).withCacheTicker(ticker, Runnable::run);
+		cut.getOrRetrieveEndpoints(DISCOVERY_URI);
+		when(oidcConfigServiceMock.retrieveEndpoints(any()))
+				.thenThrow(new OAuth2ServiceException("Currently unavailable"));
+
+		ticker.advance(Duration.ofSeconds(601));
+		Assertions.assertThat(cut.getOrRetrieveEndpoints(DISCOVERY_URI)).isSameAs(oidcEndpointsProviderMock);
+		ticker.advance(Duration.ofSeconds(29));
+		Assertions.assertThat(cut.getOrRetrieveEndpoints(DISCOVERY_URI)).isSameAs(oidcEndpointsProviderMock);
+		Mockito.verify(oidcConfigServiceMock, times(2)).retrieveEndpoints(DISCOVERY_URI);
+
+		ticker.advance(Duration.ofSeconds(1));
+		Assertions.assertThat(cut.getOrRetrieveEndpoints(DISCOVERY_URI)).isSameAs(oidcEndpointsProviderMock);
+		Mockito.verify(oidcConfigServiceMock, times(3)).retrieveEndpoints(DISCOVERY_URI);
+		Assertions.assertThat(cut.getCacheEntryAges().get(DISCOVERY_URI)).isEqualTo(Duration.ofSeconds(631));
+	}
+
 	@Test
 	public void retrieveNoEndpoints_returnsNull()
 			throws OAuth2ServiceException, InvalidKeySpecException, NoSuchAlgorithmException {
@@ -0,0 +1,90 @@
+package com.sap.cloud.security.token.validation.validators;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.sap.cloud.security.xsuaa.client.OAuth2TokenKeyService;
+import com.sap.cloud.security.xsuaa.client.OidcConfigurationService;
+
+public class SharedCacheRegistryTest {
+	private static final URI TOKEN_KEYS_URI = URI.create("https://myauth.com/jwks_uri");
+	private OAuth2TokenKeyService tokenKeyServiceMock;
+	private SharedCacheRegistry cut;
+
+	@Before
+	public void setup() throws IOException {
+		cut = new SharedCacheRegistry();
+		tokenKeyServiceMock = Mockito.mock(OAuth2TokenKeyService.class);
+		when(tokenKeyServiceMock.retrieveTokenKeys(TOKEN_KEYS_URI))
+				.thenReturn(IOUtils.resourceToString("/jsonWebTokenKeys.json", StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void sameKey_getSameInstance() {
+		OAuth2TokenKeyServiceWithCache tokenKeyService_1 = acquireTokenKeyService(tokenKeyServiceMock);
+		OAuth2TokenKeyServiceWithCache tokenKeyService_2 = acquireTokenKeyService(tokenKeyServiceMock);
+
+		assertThat(tokenKeyService_1).isSameAs(tokenKeyService_2);
+		assertThat(acquireTokenKeyService(Mockito.mock(OAuth2TokenKeyService.class))).isNotSameAs(tokenKeyService_1);
+	}
+
+	@Test
+	public void sameKey_keysAreRetrievedOnce() throws Exception {
+		OAuth2TokenKeyServiceWithCache tokenKeyService = acquireTokenKeyService(tokenKeyServiceMock);
+		tokenKeyService.getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-0", TOKEN_KEYS_URI);
+		acquireTokenKeyService(tokenKeyServiceMock).getPublicKey(JwtSignatureAlgorithm.RS256, "key-id-1",
+				TOKEN_KEYS_URI);
+
+		Mockito.verify(tokenKeyServiceMock, times(1)).retrieveTokenKeys(any());
+		assertThat(cut.getTokenKeyCacheStats().hitCount()).isGreaterThanOrEqualTo(1);
+	}
+
+	@Test
+	public void unreferencedInstance_isRemoved() throws Exception {
+		WeakReference<Object> key = new WeakReference<>(new Object());
+		WeakReference<OAuth2TokenKeyServiceWithCache> tokenKeyService = new WeakReference<>(
+				cut.acquireTokenKeyService(key.get(), () -> tokenKeyServiceMock));
+		WeakReference<Object> unreferenced = new WeakReference<>(new Object());
+		assertThat(cut.size()).isEqualTo(1);
+
+		for (int i = 0; i < 50 && unreferenced.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assumeTrue("garbage collection did not run", unreferenced.get() == null);
+
+		assertThat(key.get()).isNull();
+		assertThat(tokenKeyService.get()).isNull();
+		assertThat(cut.size()).isZero();
+	}
+
+	@Test
+	public void oidcConfigurationService_sameKey_getSameInstance() {
+		OidcConfigurationService oidcConfigurationServiceMock = Mockito.mock(OidcConfigurationService.class);
+		OidcConfigurationServiceWithCache oidcConfigurationService = cut
+				.acquireOidcConfigurationService(oidcConfigurationServiceMock, () -> oidcConfigurationServiceMock);
+
+		assertThat(cut.acquireOidcConfigurationService(oidcConfigurationServiceMock,
+				() -> oidcConfigurationServiceMock)).isSameAs(oidcConfigurationService);
+
+		assertThat(cut.acquireOidcConfigurationService(Mockito.mock(OidcConfigurationService.class),
+				() -> oidcConfigurationServiceMock)).isNotSameAs(oidcConfigurationService);
+	}
+
+	private OAuth2TokenKeyServiceWithCache acquireTokenKeyService(OAuth2TokenKeyService tokenKeyService) {
+		return cut.acquireTokenKeyService(tokenKeyService, () -> tokenKeyService);
+	}
+}
@@ -40,6 +40,16 @@ public class XsuaaJwtIssuerValidatorTest {
 		assertThat(cut.validate(token).isValid(), is(true));
 	}
 
+	@Test
+	public void sameTokenIssuer_verdictIsReused() {
+		when(token.getHeaderParameterAsString(JWKS_URL)).thenReturn("https://subdomain.myauth.ondemand.com",
+				"https://subdomain.any.ondemand.com", "https://subdomain.myauth.ondemand.com");
+
+		assertThat(cut.validate(token).isValid(), is(true));
+		assertThat(cut.validate(token).isValid(), is(false));
+		assertThat(cut.validate(token).isValid(), is(true));
+	}
+
 	@Test
 	public void validationFails_whenTokenIssuerDoesNotMatchIdentityServiceDomain() {
 		when(token.getHeaderParameterAsString(JWKS_URL)).thenReturn("https://subdomain.any.ondemand.com");
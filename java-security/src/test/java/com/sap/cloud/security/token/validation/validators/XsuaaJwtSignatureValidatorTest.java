@@ -5,7 +5,10 @@ import com.sap.cloud.security.config.Service;
 import com.sap.cloud.security.token.SapIdToken;
 import com.sap.cloud.security.token.Token;
 import com.sap.cloud.security.token.XsuaaToken;
+import com.sap.cloud.security.token.validation.ValidationErrorCode;
+import com.sap.cloud.security.token.validation.ValidationFailureLogger;
 import com.sap.cloud.security.token.validation.ValidationResult;
+import com.sap.cloud.security.xsuaa.client.OAuth2ServiceException;
 import com.sap.cloud.security.xsuaa.client.OAuth2TokenKeyService;
 import com.sap.cloud.security.xsuaa.client.OidcConfigurationService;
 import org.apache.commons.io.IOUtils;
@@ -16,9 +19,11 @@ import org.mockito.Mockito;
 import java.io.IOException;
 import java.net.URI;
 
+import static com.sap.cloud.security.config.cf.CFConstants.XSUAA.UAA_DOMAIN;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 public class XsuaaJwtSignatureValidatorTest {
@@ -65,6 +70,146 @@ public class XsuaaJwtSignatureValidatorTest {
 		assertThat(cut.validate(xsuaaToken).isValid(), is(true));
 	}
 
+	@Test
+	public void mayBlock_untilKeysAreCached() {
+		assertThat(cut.mayBlock(xsuaaToken), is(true));
+
+		assertThat(cut.validate(xsuaaToken).isValid(), is(true));
+
+		assertThat(cut.mayBlock(xsuaaToken), is(false));
+	}
+
+	@Test
+	public void verifiedTokenCache_skipsVerificationOfKnownToken() {
+		VerifiedTokenCache verifiedTokenCache = Mockito.spy(new VerifiedTokenCache(() -> xsuaaToken.getNotBefore()));
+		cut.withVerifiedTokenCache(verifiedTokenCache);
+
+		assertThat(cut.validate(xsuaaToken).isValid(), is(true));
+		assertThat(cut.validate(xsuaaToken).isValid(), is(true));
+
+		Mockito.verify(verifiedTokenCache, Mockito.times(1)).put(any(), any(), any());
+	}
+
+	@Test
+	public void verifiedTokenCache_verifiesAgainAfterKeyCacheWasCleared() {
+		OAuth2TokenKeyServiceWithCache tokenKeyServiceWithCache = OAuth2TokenKeyServiceWithCache.getInstance()
+				.withTokenKeyService(tokenKeyServiceMock);
+		VerifiedTokenCache verifiedTokenCache = Mockito.spy(new VerifiedTokenCache(() -> xsuaaToken.getNotBefore()));
+		cut = new JwtSignatureValidator(mockConfiguration, tokenKeyServiceWithCache,
+				OidcConfigurationServiceWithCache.getInstance()
+						.withOidcConfigurationService(Mockito.mock(OidcConfigurationService.class)))
+								.withVerifiedTokenCache(verifiedTokenCache);
+
+		assertThat(cut.validate(xsuaaToken).isValid(), is(true));
+		tokenKeyServiceWithCache.clearCache();
+		assertThat(cut.validate(xsuaaToken).isValid(), is(true));
+
+		Mockito.verify(verifiedTokenCache, Mockito.times(2)).put(any(), any(), any());
+	}
+
+	@Test
+	public void canonicalJwksUri_requestsKeysOfConfiguredIdentityZone() throws Exception {
+		URI tenantJwksUri = URI.create("https://tenant.authentication.stagingaws.hanavlab.ondemand.com/token_keys");
+		URI providerJwksUri = URI.create("https://provider.authentication.stagingaws.hanavlab.ondemand.com/token_keys");
+		when(tokenKeyServiceMock.retrieveTokenKeys(providerJwksUri))
+				.thenReturn(IOUtils.resourceToString("/jsonWebTokenKeys.json", UTF_8));
+		configureCanonicalJwksUri();
+
+		ValidationResult result = cut.validate(xsuaaToken.getTokenValue(), "RS256", "key-id-1",
+				tenantJwksUri.toString(), null);
+
+		assertThat(result.isValid(), is(true));
+		Mockito.verify(tokenKeyServiceMock).retrieveTokenKeys(providerJwksUri);
+		Mockito.verify(tokenKeyServiceMock, Mockito.never()).retrieveTokenKeys(tenantJwksUri);
+	}
+
+	@Test
+	public void canonicalJwksUri_unknownKeyId_requestsKeysOfJku() throws Exception {
+		URI tenantJwksUri = URI.create("https://tenant.authentication.stagingaws.hanavlab.ondemand.com/token_keys");
+		URI providerJwksUri = URI.create("https://provider.authentication.stagingaws.hanavlab.ondemand.com/token_keys");
+		when(tokenKeyServiceMock.retrieveTokenKeys(providerJwksUri)).thenReturn("{\"keys\": []}");
+		when(tokenKeyServiceMock.retrieveTokenKeys(tenantJwksUri))
+				.thenReturn(IOUtils.resourceToString("/jsonWebTokenKeys.json", UTF_8));
+		configureCanonicalJwksUri();
+		long unknownKeyFailures = getFailureCount(ValidationErrorCode.UNKNOWN_KEY);
+
+		ValidationResult result = cut.validate(xsuaaToken.getTokenValue(), "RS256", "key-id-1",
+				tenantJwksUri.toString(), null);
+
+		assertThat(result.isValid(), is(true));
+		assertThat(getFailureCount(ValidationErrorCode.UNKNOWN_KEY), is(unknownKeyFailures));
+		Mockito.verify(tokenKeyServiceMock).retrieveTokenKeys(providerJwksUri);
+		Mockito.verify(tokenKeyServiceMock).retrieveTokenKeys(tenantJwksUri);
+	}
+
+	@Test
+	public void canonicalJwksUri_signatureNotVerified_requestsKeysOfJku() throws Exception {
+		URI tenantJwksUri = URI.create("https://tenant.authentication.stagingaws.hanavlab.ondemand.com/token_keys");
+		URI providerJwksUri = URI.create("https://provider.authentication.stagingaws.hanavlab.ondemand.com/token_keys");
+		String tokenKeys = IOUtils.resourceToString("/jsonWebTokenKeys.json", UTF_8);
+		when(tokenKeyServiceMock.retrieveTokenKeys(providerJwksUri)).thenReturn(tokenKeys
+				.replace("key-id-0", "other").replace("key-id-1", "key-id-0").replace("other", "key-id-1"));
+		when(tokenKeyServiceMock.retrieveTokenKeys(tenantJwksUri)).thenReturn(tokenKeys);
+		configureCanonicalJwksUri();
+		long signatureFailures = getFailureCount(ValidationErrorCode.INVALID_SIGNATURE);
+
+		ValidationResult result = cut.validate(xsuaaToken.getTokenValue(), "RS256", "key-id-1",
+				tenantJwksUri.toString(), null);
+
+		assertThat(result.isValid(), is(true));
+		assertThat(getFailureCount(ValidationErrorCode.INVALID_SIGNATURE), is(signatureFailures));
+		Mockito.verify(tokenKeyServiceMock).retrieveTokenKeys(providerJwksUri);
+		Mockito.verify(tokenKeyServiceMock).retrieveTokenKeys(tenantJwksUri);
+	}
+
+	@Test
+	public void canonicalJwksUri_keysNotRetrieved_requestsKeysOfJku() throws Exception {
+		URI tenantJwksUri = URI.create("https://tenant.authentication.stagingaws.hanavlab.ondemand.com/token_keys");
+		URI providerJwksUri = URI.create("https://provider.authentication.stagingaws.hanavlab.ondemand.com/token_keys");
+		when(tokenKeyServiceMock.retrieveTokenKeys(providerJwksUri))
+				.thenThrow(new OAuth2ServiceException("Service unavailable"));
+		when(tokenKeyServiceMock.retrieveTokenKeys(tenantJwksUri))
+				.thenReturn(IOUtils.resourceToString("/jsonWebTokenKeys.json", UTF_8));
+		configureCanonicalJwksUri();
+
+		ValidationResult result = cut.validate(xsuaaToken.getTokenValue(), "RS256", "key-id-1",
+				tenantJwksUri.toString(), null);
+
+		assertThat(result.isValid(), is(true));
+		Mockito.verify(tokenKeyServiceMock).retrieveTokenKeys(tenantJwksUri);
+	}
+
+	@Test
+	public void canonicalJwksUri_invalidSignatureWithSameKeys_isInvalid() throws Exception {
+		URI tenantJwksUri = URI.create("https://tenant.authentication.stagingaws.hanavlab.ondemand.com/token_keys");
+		URI providerJwksUri = URI.create("https://provider.authentication.stagingaws.hanavlab.ondemand.com/token_keys");
+		String tokenKeys = IOUtils.resourceToString("/jsonWebTokenKeys.json", UTF_8);
+		when(tokenKeyServiceMock.retrieveTokenKeys(providerJwksUri)).thenReturn(tokenKeys);
+		when(tokenKeyServiceMock.retrieveTokenKeys(tenantJwksUri)).thenReturn(tokenKeys);
+		configureCanonicalJwksUri();
+		long signatureFailures = getFailureCount(ValidationErrorCode.INVALID_SIGNATURE);
+
+		ValidationResult result = cut.validate(
+				IOUtils.resourceToString("/xsuaaInvalidSignatureTokenRSA256.txt", UTF_8), "RS256", "key-id-1",
+				tenantJwksUri.toString(), null);
+
+		assertThat(result.isErroneous(), is(true));
+		assertThat(result.getErrorCode(), is(ValidationErrorCode.INVALID_SIGNATURE));
+		assertThat(getFailureCount(ValidationErrorCode.INVALID_SIGNATURE), is(signatureFailures + 1));
+	}
+
+	private static long getFailureCount(ValidationErrorCode errorCode) {
+		return ValidationFailureLogger.getInstance().getFailureCount(errorCode);
+	}
+
+	private void configureCanonicalJwksUri() {
+		when(mockConfiguration.getUrl())
+				.thenReturn(URI.create("https://provider.authentication.stagingaws.hanavlab.ondemand.com"));
+		when(mockConfiguration.hasProperty(UAA_DOMAIN)).thenReturn(true);
+		when(mockConfiguration.getProperty(UAA_DOMAIN)).thenReturn("authentication.stagingaws.hanavlab.ondemand.com");
+		cut.withCanonicalJwksUri(true);
+	}
+
 	@Test
 	public void validationFails_whenNoJkuHeaderButIssuerIsGiven() throws IOException {
 		/**
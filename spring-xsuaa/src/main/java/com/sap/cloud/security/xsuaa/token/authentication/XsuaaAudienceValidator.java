@@ -1,9 +1,12 @@
 package com.sap.cloud.security.xsuaa.token.authentication;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -26,17 +29,20 @@ import com.sap.cloud.security.xsuaa.token.TokenClaims;
  */
 public class XsuaaAudienceValidator implements OAuth2TokenValidator<Jwt> {
 	private Map<String, String> appIdClientIdMap = new HashMap<>();
+	private volatile TrustedClients trustedClients;
 	private final Logger logger = LoggerFactory.getLogger(XsuaaServicesParser.class);
 
 	public XsuaaAudienceValidator(XsuaaServiceConfiguration xsuaaServiceConfiguration) {
 		Assert.notNull(xsuaaServiceConfiguration, "'xsuaaServiceConfiguration' is required");
 		appIdClientIdMap.put(xsuaaServiceConfiguration.getAppId(), xsuaaServiceConfiguration.getClientId());
+		trustedClients = new TrustedClients(appIdClientIdMap);
 	}
 
-	public void configureAnotherXsuaaInstance(String appId, String clientId) {
+	public synchronized void configureAnotherXsuaaInstance(String appId, String clientId) {
 		Assert.notNull(appId, "'appId' is required");
 		Assert.notNull(clientId, "'clientId' is required");
 		appIdClientIdMap.putIfAbsent(appId, clientId);
+		trustedClients = new TrustedClients(appIdClientIdMap);
 		logger.info("configured XsuaaAudienceValidator with appId {} and clientId {}", appId, clientId);
 	}
 
@@ -47,32 +53,20 @@ public class XsuaaAudienceValidator implements OAuth2TokenValidator<Jwt> {
 			return OAuth2TokenValidatorResult.failure(new OAuth2Error(OAuth2ErrorCodes.INVALID_CLIENT,
 					"Jwt token must contain 'cid' (client_id)", null));
 		}
-		List<String> allowedAudiences = getAllowedAudiences(token);
-
-		for (Map.Entry<String, String> xsuaaConfig : appIdClientIdMap.entrySet()) {
-			if (checkMatch(xsuaaConfig.getKey(), xsuaaConfig.getValue(), tokenClientId, allowedAudiences)) {
-				return OAuth2TokenValidatorResult.success();
-			}
-		}
-		return OAuth2TokenValidatorResult.failure(new OAuth2Error(OAuth2ErrorCodes.INVALID_CLIENT,
-				"Jwt token audience matches none of these: " + appIdClientIdMap.keySet().toString(), null));
-	}
-
-	private boolean checkMatch(String appId, String clientId, String tokenClientId, List<String> allowedAudiences) {
+		TrustedClients trusted = trustedClients;
 		// case 1 : token issued by own client (or master)
-		if (clientId.equals(tokenClientId)
-				|| (appId.contains("!b")
-						&& tokenClientId.contains("|")
-						&& tokenClientId.endsWith("|" + appId))) {
-			return true;
-		} else {
-			// case 2: foreign token
-			if (allowedAudiences.contains(appId)) {
-				return true;
-			} else {
-				return false;
-			}
+		if (trusted.isTrustedClientId(tokenClientId)) {
+			return OAuth2TokenValidatorResult.success();
+		}
+		// case 2: foreign token
+		List<String> tokenAudiences = token.getAudience();
+		boolean hasAudiences = tokenAudiences != null && !tokenAudiences.isEmpty();
+		if (hasAudiences ? trusted.containsTrustedAudience(tokenAudiences, false)
+				: trusted.containsTrustedAudience(getScopes(token), true)) {
+			return OAuth2TokenValidatorResult.success();
 		}
+		return OAuth2TokenValidatorResult.failure(new OAuth2Error(OAuth2ErrorCodes.INVALID_CLIENT,
+				"Jwt token audience matches none of these: " + trusted.appIds, null));
 	}
 
 	/**
@@ -114,4 +108,55 @@ public class XsuaaAudienceValidator implements OAuth2TokenValidator<Jwt> {
 		scopes = token.getClaimAsStringList(TokenClaims.CLAIM_SCOPES);
 		return scopes != null ? scopes : new ArrayList<>();
 	}
+
+	/**
+	 * The trusted app ids and client ids, precomputed when an xsuaa instance is
+	 * configured, so that a token is matched without creating substrings.
+	 */
+	private static class TrustedClients {
+		final Set<String> appIds;
+		final Set<String> clientIds;
+		final String[] brokerCloneSuffixes;
+
+		TrustedClients(Map<String, String> appIdClientIdMap) {
+			appIds = Collections.unmodifiableSet(new HashSet<>(appIdClientIdMap.keySet()));
+			clientIds = Collections.unmodifiableSet(new HashSet<>(appIdClientIdMap.values()));
+			brokerCloneSuffixes = appIds.stream()
+					.filter(appId -> appId.contains("!b"))
+					.map(appId -> "|" + appId)
+					.toArray(String[]::new);
+		}
+
+		boolean isTrustedClientId(String tokenClientId) {
+			if (clientIds.contains(tokenClientId)) {
+				return true;
+			}
+			for (String suffix : brokerCloneSuffixes) {
+				if (tokenClientId.endsWith(suffix)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Checks whether one of the audiences matches a trusted app id. Audiences
+		 * (or scopes) are compared up to the first dot.
+		 */
+		boolean containsTrustedAudience(List<String> audiences, boolean requireDot) {
+			for (String audience : audiences) {
+				int dot = audience.indexOf('.');
+				if (dot < 0 && requireDot) {
+					continue;
+				}
+				int length = dot < 0 ? audience.length() : dot;
+				for (String appId : appIds) {
+					if (length > 0 && appId.length() == length && audience.regionMatches(0, appId, 0, length)) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+	}
 }
@@ -32,6 +32,7 @@ public class XsuaaJwtDecoder implements JwtDecoder {
 	private final XsuaaServiceConfiguration xsuaaServiceConfiguration;
 
 	Cache<String, JwtDecoder> cache;
+	private final Cache<String, Optional<String>> jkuHosts;
 	private OAuth2TokenValidator<Jwt> tokenValidators;
 	private Collection<PostValidationAction> postValidationActions;
 	private TokenInfoExtractor tokenInfoExtractor;
@@ -43,6 +44,7 @@ public class XsuaaJwtDecoder implements JwtDecoder {
 		this.cache = Caffeine.newBuilder().expireAfterWrite(cacheValidityInSeconds, TimeUnit.SECONDS)
 				.maximumSize(cacheSize)
 				.build();
+		this.jkuHosts = Caffeine.newBuilder().maximumSize(cacheSize).build();
 		this.tokenValidators = tokenValidators;
 		this.xsuaaServiceConfiguration = xsuaaServiceConfiguration;
 
@@ -130,17 +132,30 @@ public class XsuaaJwtDecoder implements JwtDecoder {
 	}
 
 	private void validateJKU(String jku, String uaadomain) {
+		String jkuHost = jkuHosts.get(jku, XsuaaJwtDecoder::getHost)
+				.orElseThrow(() -> new JwtException("JKU of token header is not valid"));
+		if (jkuHost.isEmpty()) {
+			throw new JwtException("JKU of token is not valid");
+		} else if (!jkuHost.endsWith(uaadomain)) {
+			logger.warn(String.format("Error: Do not trust jku '%s' because it does not match uaa domain '%s'",
+					jku, uaadomain));
+			throw new JwtException("JKU of token header is not trusted");
+		}
+	}
+
+	/**
+	 * Parses the host of the jku, the hosts are cached per jku as the number of
+	 * distinct jkus is bounded by the number of tenants.
+	 *
+	 * @return the host, an empty string in case the jku has no host or empty in
+	 *         case the jku is no valid URI.
+	 */
+	private static Optional<String> getHost(String jku) {
 		try {
-			URI jkuUri = new URI(jku);
-			if (jkuUri.getHost() == null) {
-				throw new JwtException("JKU of token is not valid");
-			} else if (!jkuUri.getHost().endsWith(uaadomain)) {
-				logger.warn(String.format("Error: Do not trust jku '%s' because it does not match uaa domain '%s'",
-						jku, uaadomain));
-				throw new JwtException("JKU of token header is not trusted");
-			}
+			String host = new URI(jku).getHost();
+			return Optional.of(host != null ? host : "");
 		} catch (URISyntaxException e) {
-			throw new JwtException("JKU of token header is not valid");
+			return Optional.empty();
 		}
 	}
 
@@ -169,4 +169,13 @@ public class XsuaaAudienceValidatorTest {
 		Assert.assertFalse(result.hasErrors());
 	}
 
+	@Test
+	public void testAnotherXsuaaInstance() {
+		XsuaaAudienceValidator validator = new XsuaaAudienceValidator(serviceConfigurationUnGrantedClientId);
+		Assert.assertTrue(validator.validate(tokenWithAudience).hasErrors());
+
+		validator.configureAnotherXsuaaInstance("test1!t1", "sb-test1!t1");
+		Assert.assertFalse(validator.validate(tokenWithAudience).hasErrors());
+	}
+
 }
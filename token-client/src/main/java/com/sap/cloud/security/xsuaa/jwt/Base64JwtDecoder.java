@@ -2,10 +2,6 @@ package com.sap.cloud.security.xsuaa.jwt;
 
 import com.sap.cloud.security.xsuaa.Assertions;
 
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
-import java.util.regex.Pattern;
-
 public final class Base64JwtDecoder {
 	private static final Base64JwtDecoder instance = new Base64JwtDecoder();
 
@@ -32,33 +28,21 @@ public final class Base64JwtDecoder {
 	public DecodedJwt decode(String jwt) {
 		Assertions.assertNotNull(jwt, "JWT must not be null");
 
-		String[] parts = jwt.split(Pattern.quote("."));
-		if (parts.length != 3) {
-			throw new IllegalArgumentException("JWT token does not consist of 'header'.'payload'.'signature'.");
-		}
-		String header = base64Decode(parts[0]);
-		String payload = base64Decode(parts[1]);
-		String signature = parts[2];
-
-		return new DecodedJwtImpl(jwt, header, payload, signature);
-	}
-
-	private String base64Decode(String encoded) {
-		byte[] decodedBytes = Base64.getUrlDecoder().decode(encoded);
-		return new String(decodedBytes, StandardCharsets.UTF_8);
+		JwtSegments segments = JwtSegments.of(jwt);
+		return new DecodedJwtImpl(jwt, segments.decodeHeader(), segments.decodePayload(), segments);
 	}
 
 	static class DecodedJwtImpl implements DecodedJwt {
 
 		private String header;
 		private String payload;
-		private String signature;
+		private JwtSegments segments;
 		private String encodedJwt;
 
-		DecodedJwtImpl(String encodedJwt, String header, String payload, String signature) {
+		DecodedJwtImpl(String encodedJwt, String header, String payload, JwtSegments segments) {
 			this.header = header;
 			this.payload = payload;
-			this.signature = signature;
+			this.segments = segments;
 			this.encodedJwt = encodedJwt;
 		}
 
@@ -74,7 +58,7 @@ public final class Base64JwtDecoder {
 
 		@Override
 		public String getSignature() {
-			return signature;
+			return segments.getSignature();
 		}
 
 		@Override
@@ -82,5 +66,10 @@ public final class Base64JwtDecoder {
 			return encodedJwt;
 		}
 
+		@Override
+		public JwtSegments getSegments() {
+			return segments;
+		}
+
 	}
 }
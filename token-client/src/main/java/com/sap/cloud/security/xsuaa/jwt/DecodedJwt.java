@@ -1,5 +1,7 @@
 package com.sap.cloud.security.xsuaa.jwt;
 
+import javax.annotation.Nullable;
+
 /**
  * A Jwt token consists of three parts, separated by ".":
  * header.payload.signature
@@ -38,4 +40,15 @@ public interface DecodedJwt {
 	 */
 	String getEncodedToken();
 
+	/**
+	 * Get the segments of the encoded token, e.g. to verify its signature without
+	 * scanning the token again.
+	 *
+	 * @return the segments, or null in case they are not known.
+	 */
+	@Nullable
+	default JwtSegments getSegments() {
+		return null;
+	}
+
 }
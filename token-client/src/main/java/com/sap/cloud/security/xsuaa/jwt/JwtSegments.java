@@ -0,0 +1,115 @@
+package com.sap.cloud.security.xsuaa.jwt;
+
+import com.sap.cloud.security.xsuaa.Assertions;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.util.Base64;
+
+/**
+ * Locates the three segments of an encoded Json Web token (jwt):
+ * header.payload.signature. <br>
+ * The token is scanned once for the two dots, the segments are accessed via
+ * their offsets in the token bytes without creating intermediate strings.
+ */
+public final class JwtSegments {
+	private static final byte DOT = '.';
+	private final byte[] token;
+	private final int firstDot;
+	private final int secondDot;
+
+	private JwtSegments(byte[] token, int firstDot, int secondDot) {
+		this.token = token;
+		this.firstDot = firstDot;
+		this.secondDot = secondDot;
+	}
+
+	/**
+	 * Scans the encoded jwt for its segments.
+	 *
+	 * @param jwt
+	 *            the encoded access token
+	 * @return the segments of the jwt.
+	 * @throws IllegalArgumentException
+	 *             in case the jwt does not consist of three segments.
+	 */
+	public static JwtSegments of(String jwt) {
+		Assertions.assertNotNull(jwt, "JWT must not be null");
+		byte[] token = jwt.getBytes(StandardCharsets.US_ASCII); // base64url encoded segments are ASCII
+		int firstDot = indexOfDot(token, 0);
+		int secondDot = indexOfDot(token, firstDot + 1);
+		if (firstDot < 0 || secondDot < 0 || secondDot == token.length - 1
+				|| indexOfDot(token, secondDot + 1) >= 0) {
+			throw new IllegalArgumentException("JWT token does not consist of 'header'.'payload'.'signature'.");
+		}
+		return new JwtSegments(token, firstDot, secondDot);
+	}
+
+	private static int indexOfDot(byte[] token, int fromIndex) {
+		for (int i = fromIndex; i < token.length; i++) {
+			if (token[i] == DOT) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Decodes the header of the jwt.
+	 *
+	 * @return the base64 decoded header as UTF-8 String.
+	 */
+	public String decodeHeader() {
+		return base64Decode(0, firstDot);
+	}
+
+	/**
+	 * Decodes the payload of the jwt.
+	 *
+	 * @return the base64 decoded payload as UTF-8 String.
+	 */
+	public String decodePayload() {
+		return base64Decode(firstDot + 1, secondDot);
+	}
+
+	/**
+	 * Get the encoded signature of the jwt.
+	 *
+	 * @return the encoded signature.
+	 */
+	public String getSignature() {
+		return new String(token, secondDot + 1, token.length - secondDot - 1, StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * Provides the signed content, i.e. the encoded 'header.payload', to the
+	 * signature that is initialized for verification.
+	 *
+	 * @param signature
+	 *            the signature
+	 * @throws SignatureException
+	 *             in case the signature is not initialized.
+	 */
+	public void updateSignedContent(Signature signature) throws SignatureException {
+		signature.update(token, 0, secondDot);
+	}
+
+	/**
+	 * Decodes the signature of the jwt.
+	 *
+	 * @return the base64 decoded signature bytes between position and limit of
+	 *         the buffer.
+	 */
+	public ByteBuffer decodeSignature() {
+		return Base64.getUrlDecoder().decode(ByteBuffer.wrap(token, secondDot + 1, token.length - secondDot - 1));
+	}
+
+	private String base64Decode(int beginIndex, int endIndex) {
+		ByteBuffer decoded = Base64.getUrlDecoder()
+				.decode(ByteBuffer.wrap(token, beginIndex, endIndex - beginIndex));
+		return new String(decoded.array(), decoded.arrayOffset() + decoded.position(), decoded.remaining(),
+				StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,72 @@
+package com.sap.cloud.security.xsuaa.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.util.Base64;
+
+import org.junit.Test;
+
+public class JwtSegmentsTest {
+	private static final String HEADER = "{\"alg\":\"RS256\"}";
+	private static final String PAYLOAD = "{\"sub\":\"1234\",\"given_name\":\"Andrea María\"}";
+	private static final byte[] SIGNATURE = { 1, 2, 3, 4, 5 };
+
+	private final String encodedJwt = encode(HEADER.getBytes(StandardCharsets.UTF_8)) + "."
+			+ encode(PAYLOAD.getBytes(StandardCharsets.UTF_8)) + "." + encode(SIGNATURE);
+
+	@Test
+	public void decodeSegments() {
+		JwtSegments cut = JwtSegments.of(encodedJwt);
+
+		assertThat(cut.decodeHeader()).isEqualTo(HEADER);
+		assertThat(cut.decodePayload()).isEqualTo(PAYLOAD);
+		assertThat(cut.getSignature()).isEqualTo(encode(SIGNATURE));
+
+		ByteBuffer signature = cut.decodeSignature();
+		byte[] signatureBytes = new byte[signature.remaining()];
+		signature.get(signatureBytes);
+		assertThat(signatureBytes).isEqualTo(SIGNATURE);
+	}
+
+	@Test
+	public void updateSignedContent_verifiesHeaderAndPayload() throws Exception {
+		KeyPair keyPair = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+		String signedContent = encodedJwt.substring(0, encodedJwt.lastIndexOf('.'));
+		Signature signer = Signature.getInstance("SHA256withRSA");
+		signer.initSign(keyPair.getPrivate());
+		signer.update(signedContent.getBytes(StandardCharsets.US_ASCII));
+		JwtSegments cut = JwtSegments.of(signedContent + "." + encode(signer.sign()));
+
+		Signature verifier = Signature.getInstance("SHA256withRSA");
+		verifier.initVerify(keyPair.getPublic());
+		cut.updateSignedContent(verifier);
+		ByteBuffer signature = cut.decodeSignature();
+
+		assertThat(verifier.verify(signature.array(), signature.arrayOffset() + signature.position(),
+				signature.remaining())).isTrue();
+	}
+
+	@Test
+	public void allowsEmptyPayload() {
+		assertThat(JwtSegments.of("header..signature").decodePayload()).isEmpty();
+	}
+
+	@Test
+	public void invalidSegments_throwsException() {
+		assertThatThrownBy(() -> JwtSegments.of("invalid")).isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("JWT token does not consist of 'header'.'payload'.'signature'.");
+		assertThatThrownBy(() -> JwtSegments.of("header.payload")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> JwtSegments.of("header.payload.")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> JwtSegments.of("a.b.c.d")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static String encode(byte[] bytes) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+}